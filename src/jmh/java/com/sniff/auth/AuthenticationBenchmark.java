@@ -0,0 +1,178 @@
+package com.sniff.auth;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import com.sniff.auth.role.Role;
+import com.sniff.jwt.JwtConfig;
+import com.sniff.jwt.JwtKeys;
+import com.sniff.jwt.JwtService;
+import com.sniff.jwt.KeyIdJwsKeySelector;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimNames;
+import org.springframework.security.oauth2.jwt.JwtClaimValidator;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtTimestampValidator;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationProvider;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import static com.sniff.jwt.JwtConstants.BEARER_PREFIX;
+
+/**
+ * Authentication of a bearer token request as it was, with the validation filter verifying the
+ * token before the resource server verified it again, against the resource server alone. Both
+ * paths run the real servlet filters in front of an empty servlet and use a decoder without the
+ * token cache, so each verification is a full signature check.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthenticationBenchmark {
+    private static final int TOKENS = 1024;
+
+    private final String[] authorizationHeaders = new String[TOKENS];
+    private final HttpServlet servlet = new HttpServlet() {
+        @Override
+        protected void service(HttpServletRequest request, HttpServletResponse response) {
+            response.setStatus(HttpServletResponse.SC_OK);
+        }
+    };
+    private LegacyJwtValidationFilter validationFilter;
+    private BearerTokenAuthenticationFilter bearerTokenFilter;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LoggingSystem.get(getClass().getClassLoader()).setLogLevel(LoggingSystem.ROOT_LOGGER_NAME, LogLevel.WARN);
+        JwtKeys keys = JwtKeys.generate("RS256");
+        JwtService jwtService = new JwtService(
+                new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(keys.signingKey()))), keys);
+        for (int i = 0; i < TOKENS; i++) {
+            authorizationHeaders[i] = BEARER_PREFIX + jwtService.generateToken((long) i, "Mark", Role.USER);
+        }
+        JwtDecoder decoder = uncachedDecoder(keys);
+        JwtAuthenticationProvider provider = new JwtAuthenticationProvider(decoder);
+        provider.setJwtAuthenticationConverter(new JwtConfig().jwtAuthenticationConverter());
+        validationFilter = new LegacyJwtValidationFilter(decoder);
+        bearerTokenFilter = new BearerTokenAuthenticationFilter(new ProviderManager(provider));
+        try {
+            if (validationFilterAndResourceServer() != HttpServletResponse.SC_OK
+                    || resourceServer() != HttpServletResponse.SC_OK) {
+                throw new IllegalStateException("Benchmark request was not authenticated");
+            }
+        } catch (ServletException | IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Benchmark
+    public int validationFilterAndResourceServer() throws ServletException, IOException {
+        return authenticate(new MockFilterChain(servlet, validationFilter, bearerTokenFilter));
+    }
+
+    @Benchmark
+    public int resourceServer() throws ServletException, IOException {
+        return authenticate(new MockFilterChain(servlet, bearerTokenFilter));
+    }
+
+    private int authenticate(MockFilterChain chain) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/images/jobs/1");
+        request.addHeader(HttpHeaders.AUTHORIZATION, authorizationHeaders[next++ & (TOKENS - 1)]);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response.getStatus();
+    }
+
+    /**
+     * The decoder of {@code JwtConfig} without the token cache.
+     */
+    private static JwtDecoder uncachedDecoder(JwtKeys keys) {
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new KeyIdJwsKeySelector(keys));
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        NimbusJwtDecoder jwtDecoder = new NimbusJwtDecoder(jwtProcessor);
+        jwtDecoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(
+                new JwtTimestampValidator(Duration.ZERO),
+                new JwtClaimValidator<Instant>(JwtClaimNames.EXP, Objects::nonNull),
+                new JwtClaimValidator<String>(JwtClaimNames.SUB, StringUtils::hasText)));
+        return jwtDecoder;
+    }
+
+    /**
+     * The validation filter the resource server replaced: it verified every bearer token on its own
+     * and rejected it before the security chain decoded it again.
+     */
+    private static class LegacyJwtValidationFilter extends OncePerRequestFilter {
+        private final JwtDecoder jwtDecoder;
+
+        private LegacyJwtValidationFilter(JwtDecoder jwtDecoder) {
+            this.jwtDecoder = jwtDecoder;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request,
+                                        HttpServletResponse response,
+                                        FilterChain filterChain) throws ServletException, IOException {
+            String authorizationHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+            if (authorizationHeader != null && authorizationHeader.startsWith(BEARER_PREFIX)) {
+                try {
+                    Jwt jwt = jwtDecoder.decode(authorizationHeader.substring(BEARER_PREFIX.length()));
+                    if (jwt.getSubject() == null || jwt.getExpiresAt() == null
+                            || Instant.now().isAfter(jwt.getExpiresAt())) {
+                        response.sendError(HttpServletResponse.SC_FORBIDDEN);
+                        return;
+                    }
+                } catch (BadJwtException e) {
+                    response.sendError(HttpServletResponse.SC_FORBIDDEN);
+                    return;
+                }
+            }
+            filterChain.doFilter(request, response);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.sniff.auth;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import com.sniff.auth.role.Role;
+import com.sniff.jwt.JwtKeys;
+import com.sniff.jwt.JwtService;
+import com.sniff.jwt.KeyIdJwsKeySelector;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signing and verification throughput of every algorithm {@code JwtKeys} supports. The size of the
+ * signed token is reported next to the signing throughput as the {@code bytes} secondary result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SigningAlgorithmBenchmark {
+    @Param({"RS256", "ES256"})
+    private String algorithm;
+
+    private JwtService jwtService;
+    private JwtDecoder jwtDecoder;
+    private String token;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class TokenSize {
+        public long bytes;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JwtKeys keys = JwtKeys.generate(algorithm);
+        jwtService = new JwtService(new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(keys.signingKey()))), keys);
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new KeyIdJwsKeySelector(keys));
+        jwtDecoder = new NimbusJwtDecoder(jwtProcessor);
+        token = jwtService.generateToken(1L, "Mark", Role.USER);
+    }
+
+    @Benchmark
+    public String sign(TokenSize tokenSize) {
+        String signed = jwtService.generateToken(1L, "Mark", Role.USER);
+        tokenSize.bytes = signed.length();
+        return signed;
+    }
+
+    @Benchmark
+    public Jwt verify() {
+        return jwtDecoder.decode(token);
+    }
+}
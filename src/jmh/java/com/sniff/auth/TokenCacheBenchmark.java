@@ -0,0 +1,68 @@
+package com.sniff.auth;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import com.sniff.auth.role.Role;
+import com.sniff.jwt.CachingJwtDecoder;
+import com.sniff.jwt.JwtKeys;
+import com.sniff.jwt.JwtService;
+import com.sniff.jwt.KeyIdJwsKeySelector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A full RS256 verification of a bearer token against a hit in the token cache for the same token,
+ * which is what every request after the first one with that token pays.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenCacheBenchmark {
+    private JwtDecoder verifier;
+    private CachingJwtDecoder cachingDecoder;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JwtKeys keys = JwtKeys.generate("RS256");
+        JwtService jwtService = new JwtService(
+                new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(keys.signingKey()))), keys);
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new KeyIdJwsKeySelector(keys));
+        verifier = new NimbusJwtDecoder(jwtProcessor);
+        cachingDecoder = new CachingJwtDecoder(verifier, 10_000, Clock.systemUTC());
+        token = jwtService.generateToken(1L, "Mark", Role.USER);
+        cachingDecoder.decode(token);
+    }
+
+    @Benchmark
+    public Jwt verification() {
+        return verifier.decode(token);
+    }
+
+    @Benchmark
+    public Jwt cacheHit() {
+        return cachingDecoder.decode(token);
+    }
+}
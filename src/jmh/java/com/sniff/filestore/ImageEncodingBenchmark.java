@@ -0,0 +1,81 @@
+package com.sniff.filestore;
+
+import com.sniff.filestore.encoding.ImageEncoder;
+import com.sniff.filestore.encoding.JpegImageEncoder;
+import com.sniff.filestore.encoding.PngImageEncoder;
+import com.sniff.filestore.upload.UploadBuffer;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode time of a full-size photographic image per encoder the {@code ImageEncodingPolicy} can pick.
+ * The encoded size is reported next to the time as the {@code bytes} secondary result.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImageEncodingBenchmark {
+    @Param({"png", "jpeg-0.82", "jpeg-0.60"})
+    private String encoding;
+
+    private ImageEncoder encoder;
+    private BufferedImage photo;
+    private UploadBuffer buffer;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EncodedSize {
+        public long bytes;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        encoder = encoding.startsWith("jpeg-")
+                ? new JpegImageEncoder(Float.parseFloat(encoding.substring("jpeg-".length())))
+                : new PngImageEncoder();
+        photo = photographicImage(1600, 1200);
+        buffer = new UploadBuffer(1 << 20);
+    }
+
+    @Benchmark
+    public int encode(EncodedSize encodedSize) throws IOException {
+        buffer.reset();
+        encoder.encode(photo, buffer);
+        encodedSize.bytes = buffer.size();
+        return buffer.size();
+    }
+
+    private static BufferedImage photographicImage(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int noise = random.nextInt(24);
+                int red = Math.min(255, x * 255 / width + noise);
+                int green = Math.min(255, y * 255 / height + noise);
+                int blue = Math.min(255, 128 + noise);
+                image.setRGB(x, y, red << 16 | green << 8 | blue);
+            }
+        }
+        return image;
+    }
+}
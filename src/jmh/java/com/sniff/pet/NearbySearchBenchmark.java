@@ -0,0 +1,141 @@
+package com.sniff.pet;
+
+import com.sniff.auth.role.Role;
+import com.sniff.pet.geo.PetGeoIndex;
+import com.sniff.pet.model.entity.Pet;
+import com.sniff.pet.model.response.PetCard;
+import com.sniff.pet.repository.PetRepository;
+import com.sniff.user.model.entity.User;
+import com.sniff.utils.GeoArea;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.sniff.pet.enums.Gender.MALE;
+import static com.sniff.pet.enums.PetStatus.LOST;
+
+/**
+ * Nearby search through the bounding box query, the only path before the geo index, against the
+ * index lookup followed by loading the cards by id. H2 runs in process, so the figures leave out
+ * the network round trip a real database adds to both paths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NearbySearchBenchmark {
+    private static final double LATITUDE = 50.45;
+    private static final double LONGITUDE = 30.25;
+    private static final double RADIUS_KM = 5;
+    private static final int LIMIT = 20;
+
+    @Param({"5000", "50000"})
+    private int pets;
+
+    private ConfigurableApplicationContext context;
+    private PetRepository petRepository;
+    private PetGeoIndex petGeoIndex;
+    private GeoArea area;
+
+    @Configuration
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class,
+            TransactionAutoConfiguration.class})
+    @EntityScan("com.sniff")
+    @EnableJpaRepositories("com.sniff")
+    static class JpaConfig {
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(JpaConfig.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .run("--spring.datasource.url=jdbc:h2:mem:nearby_benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN");
+        petRepository = context.getBean(PetRepository.class);
+        context.getBean(TransactionTemplate.class).executeWithoutResult(status -> persistPets());
+        petGeoIndex = new PetGeoIndex(petRepository);
+        petGeoIndex.rebuild();
+        area = GeoArea.around(LATITUDE, LONGITUDE, RADIUS_KM);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<PetCard> boundingBoxQuery() {
+        return petRepository.findPetsNearby(area, null, PageRequest.of(0, LIMIT));
+    }
+
+    @Benchmark
+    public List<PetCard> geoIndex() {
+        return petRepository.findPetCardsByIds(petGeoIndex.findNearby(LATITUDE, LONGITUDE, RADIUS_KM, null, LIMIT));
+    }
+
+    private void persistPets() {
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                context.getBean(EntityManagerFactory.class));
+        User user = User.builder()
+                .firstname("Mark")
+                .lastname("Himonov")
+                .email("mark@gmail.com")
+                .phone("+380111111111")
+                .password("password")
+                .role(Role.USER)
+                .build();
+        entityManager.persist(user);
+        int side = (int) Math.sqrt(pets);
+        for (int i = 0; i < pets; i++) {
+            entityManager.persist(Pet.builder()
+                    .status(LOST)
+                    .name("Pet" + i)
+                    .latitude(50.00 + i % side * 0.01)
+                    .longitude(30.00 + i / side * 0.01)
+                    .gender(MALE)
+                    .foundOrLostDate(LocalDate.now())
+                    .author(user)
+                    .build());
+            if (i % 1_000 == 0) {
+                entityManager.flush();
+                entityManager.clear();
+                user = entityManager.getReference(User.class, user.getId());
+            }
+        }
+    }
+}
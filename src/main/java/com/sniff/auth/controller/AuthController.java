@@ -1,6 +1,7 @@
 package com.sniff.auth.controller;
 
 import com.sniff.auth.model.AuthResponse;
+import com.sniff.auth.model.RefreshTokenRequest;
 import com.sniff.auth.service.AuthService;
 import com.sniff.user.model.request.UserSignIn;
 import com.sniff.user.model.request.UserSignUp;
@@ -60,4 +61,39 @@ public class AuthController {
     public AuthResponse signIn(@Valid @RequestBody UserSignIn userSignIn) {
         return authService.signIn(userSignIn);
     }
+
+    @Operation(
+            summary = "Renew the session with a refresh token",
+            description = "As a user, I want to stay signed in after my access token expires " +
+                    "without entering my password again. The refresh token can be used once, " +
+                    "the response contains the next one."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200",
+                    content = { @Content(schema = @Schema(implementation = AuthResponse.class)) }),
+            @ApiResponse(responseCode = "401", description = "Unknown, expired or already used refresh token",
+                    content = { @Content(schema = @Schema(implementation = HttpResponse.class)) }),
+            @ApiResponse(responseCode = "400", description = "Invalid fields",
+                    content = { @Content(schema = @Schema(implementation = HttpResponse.class)) })
+    })
+    @PostMapping("/refresh")
+    @ResponseStatus(HttpStatus.OK)
+    public AuthResponse refresh(@Valid @RequestBody RefreshTokenRequest refreshTokenRequest) {
+        return authService.refresh(refreshTokenRequest);
+    }
+
+    @Operation(
+            summary = "Sign out on all devices",
+            description = "As a user, I want to sign out so that none of my refresh tokens can renew a session."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "204"),
+            @ApiResponse(responseCode = "400", description = "Invalid fields",
+                    content = { @Content(schema = @Schema(implementation = HttpResponse.class)) })
+    })
+    @PostMapping("/signout")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void signOut(@Valid @RequestBody RefreshTokenRequest refreshTokenRequest) {
+        authService.signOut(refreshTokenRequest);
+    }
 }
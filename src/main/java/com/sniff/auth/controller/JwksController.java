@@ -0,0 +1,35 @@
+package com.sniff.auth.controller;
+
+import com.sniff.jwt.JwtKeys;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Auth", description = "Auth APIs documentation")
+public class JwksController {
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic();
+
+    private final JwtKeys jwtKeys;
+
+    @Operation(
+            summary = "Get the public keys tokens are signed with",
+            description = "JSON Web Key Set with every key that may have signed a valid token, identified by kid"
+    )
+    @ApiResponse(responseCode = "200")
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> getKeys() {
+        return ResponseEntity.ok()
+                .cacheControl(CACHE_CONTROL)
+                .body(jwtKeys.publicKeys().toJSONObject());
+    }
+}
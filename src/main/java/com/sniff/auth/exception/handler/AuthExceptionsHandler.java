@@ -1,6 +1,7 @@
 package com.sniff.auth.exception.handler;
 
 import com.sniff.auth.exception.DeniedAccessException;
+import com.sniff.auth.exception.InvalidRefreshTokenException;
 import com.sniff.utils.HttpResponse;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -14,4 +15,10 @@ public class AuthExceptionsHandler {
     public HttpResponse handlerBadCredentialsException(DeniedAccessException e) {
         return new HttpResponse(e.getMessage());
     }
+
+    @ResponseStatus(HttpStatus.UNAUTHORIZED)
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public HttpResponse handlerInvalidRefreshTokenException(InvalidRefreshTokenException e) {
+        return new HttpResponse(e.getMessage());
+    }
 }
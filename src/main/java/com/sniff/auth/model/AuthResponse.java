@@ -9,4 +9,5 @@ import lombok.Setter;
 @AllArgsConstructor
 public class AuthResponse {
     private String jwtToken;
+    private String refreshToken;
 }
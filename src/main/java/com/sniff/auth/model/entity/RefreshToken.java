@@ -0,0 +1,43 @@
+package com.sniff.auth.model.entity;
+
+import com.sniff.user.model.entity.User;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * A refresh token, stored only as the SHA-256 of its value. A token is used once: refreshing
+ * marks it rotated and issues a new one, and a rotated token that comes back after the reuse
+ * grace period, or a second time within it, means it leaked.
+ */
+@Entity(name = "refresh_tokens")
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_tokens_user", columnList = "user_id")
+})
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RefreshToken {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 64, name = "token_hash")
+    private String tokenHash;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(nullable = false, name = "expires_at")
+    private Instant expiresAt;
+
+    @Column(name = "rotated_at")
+    private Instant rotatedAt;
+
+    @Column(nullable = false, name = "retried")
+    private boolean retried;
+}
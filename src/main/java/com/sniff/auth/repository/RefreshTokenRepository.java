@@ -0,0 +1,37 @@
+package com.sniff.auth.repository;
+
+import com.sniff.auth.model.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    /**
+     * Marks the token rotated unless another request already did, so only one of two concurrent
+     * refreshes with the same token succeeds.
+     */
+    @Modifying
+    @Query("UPDATE refresh_tokens t SET t.rotatedAt = :rotatedAt WHERE t.id = :id AND t.rotatedAt IS NULL")
+    int markRotated(Long id, Instant rotatedAt);
+
+    /**
+     * Spends the single retry a rotated token gets within the reuse grace period, so only the
+     * first of any further presentations is rotated again.
+     */
+    @Modifying
+    @Query("UPDATE refresh_tokens t SET t.retried = true WHERE t.id = :id AND t.retried = false")
+    int markRetried(Long id);
+
+    @Modifying
+    @Query("DELETE FROM refresh_tokens t WHERE t.user.id = :userId")
+    int deleteAllByUserId(Long userId);
+
+    @Modifying
+    @Query("DELETE FROM refresh_tokens t WHERE t.expiresAt < :now")
+    int deleteExpired(Instant now);
+}
@@ -1,6 +1,8 @@
 package com.sniff.auth.service;
 
+import com.sniff.auth.exception.InvalidRefreshTokenException;
 import com.sniff.auth.model.AuthResponse;
+import com.sniff.auth.model.RefreshTokenRequest;
 import com.sniff.auth.role.Role;
 import com.sniff.jwt.JwtService;
 import com.sniff.mapper.Mappers;
@@ -29,6 +31,7 @@ public class AuthService {
     private final Mappers mapper;
     private final JwtService jwtService;
     private final PasswordEncoder passwordEncoder;
+    private final RefreshTokenService refreshTokenService;
 
     public AuthResponse signUp(UserSignUp userSignUp) {
         String email = userSignUp.getEmail();
@@ -57,8 +60,7 @@ public class AuthService {
 
         userRepository.save(user);
 
-        String jwtToken = jwtService.generateToken(user.getId(), user.getFirstname(), user.getRole());
-        return new AuthResponse(jwtToken);
+        return authResponse(user);
     }
 
     public AuthResponse signIn(UserSignIn userSignIn) {
@@ -69,7 +71,25 @@ public class AuthService {
             throw new BadCredentialsException("Invalid email or password");
         }
 
+        return authResponse(user);
+    }
+
+    /**
+     * Renews the session with a refresh token instead of the password. The token is rotated,
+     * so the response carries the refresh token to use next time.
+     */
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public AuthResponse refresh(RefreshTokenRequest refreshTokenRequest) {
+        User user = refreshTokenService.rotate(refreshTokenRequest.getRefreshToken());
+        return authResponse(user);
+    }
+
+    public void signOut(RefreshTokenRequest refreshTokenRequest) {
+        refreshTokenService.revoke(refreshTokenRequest.getRefreshToken());
+    }
+
+    private AuthResponse authResponse(User user) {
         String jwtToken = jwtService.generateToken(user.getId(), user.getFirstname(), user.getRole());
-        return new AuthResponse(jwtToken);
+        return new AuthResponse(jwtToken, refreshTokenService.issue(user));
     }
 }
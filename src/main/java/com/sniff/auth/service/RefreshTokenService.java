@@ -0,0 +1,121 @@
+package com.sniff.auth.service;
+
+import com.sniff.auth.exception.InvalidRefreshTokenException;
+import com.sniff.auth.model.entity.RefreshToken;
+import com.sniff.auth.repository.RefreshTokenRepository;
+import com.sniff.user.model.entity.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+
+import static com.sniff.jwt.JwtConstants.INVALID_REFRESH_TOKEN_MESSAGE;
+
+/**
+ * Issues opaque refresh tokens and rotates them on every use. Only the SHA-256 of a token is
+ * stored: the token is 256 random bits, so a fast hash is enough to make a leaked table useless.
+ * A token that is presented again after its rotation was stolen or replayed, and revokes every
+ * refresh token of its user. Within {@code jwt.refresh-token.reuse-grace-period} of the rotation
+ * it is taken for a client retrying after a lost response instead, and rotated once more. Only one
+ * such retry is allowed, so a stolen token cannot keep minting new tokens inside the grace period.
+ */
+@Service
+@Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+public class RefreshTokenService {
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Duration expiration;
+    private final Duration reuseGracePeriod;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               @Value("${jwt.refresh-token.expiration}") Duration expiration,
+                               @Value("${jwt.refresh-token.reuse-grace-period}") Duration reuseGracePeriod) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.expiration = expiration;
+        this.reuseGracePeriod = reuseGracePeriod;
+    }
+
+    public String issue(User user) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(hash(token))
+                .user(user)
+                .expiresAt(Instant.now().plus(expiration))
+                .build());
+        return token;
+    }
+
+    /**
+     * Uses up the token and returns its user, who gets a new token from {@link #issue(User)}.
+     * A token rotated within the grace period, by an earlier or a concurrent request, is rotated
+     * again once; any further presentation is treated as reuse. The revocation on reuse commits although the exception is thrown, as long as the
+     * caller does not roll back on {@link InvalidRefreshTokenException} either.
+     */
+    public User rotate(String token) {
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(hash(token))
+                .orElseThrow(() -> new InvalidRefreshTokenException(INVALID_REFRESH_TOKEN_MESSAGE));
+        Instant now = Instant.now();
+        if (!now.isBefore(refreshToken.getExpiresAt())) {
+            throw new InvalidRefreshTokenException(INVALID_REFRESH_TOKEN_MESSAGE);
+        }
+        User user = refreshToken.getUser();
+        if (refreshToken.getRotatedAt() == null && refreshTokenRepository.markRotated(refreshToken.getId(), now) == 1) {
+            return user;
+        }
+        Instant rotatedAt = refreshToken.getRotatedAt() != null ? refreshToken.getRotatedAt() : now;
+        if (now.isBefore(rotatedAt.plus(reuseGracePeriod))
+                && refreshTokenRepository.markRetried(refreshToken.getId()) == 1) {
+            log.info("Refresh token of user {} presented again within the grace period, rotating it again", user.getId());
+            return user;
+        }
+        log.warn("Reused refresh token of user {}, revoking all of the user's refresh tokens", user.getId());
+        revokeAll(user.getId());
+        throw new InvalidRefreshTokenException(INVALID_REFRESH_TOKEN_MESSAGE);
+    }
+
+    /**
+     * Revokes the token's user everywhere. Unknown tokens are ignored, so signing out twice is harmless.
+     */
+    public void revoke(String token) {
+        refreshTokenRepository.findByTokenHash(hash(token))
+                .ifPresent(refreshToken -> revokeAll(refreshToken.getUser().getId()));
+    }
+
+    public void revokeAll(Long userId) {
+        refreshTokenRepository.deleteAllByUserId(userId);
+    }
+
+    @Scheduled(initialDelayString = "${jwt.refresh-token.cleanup-interval}",
+            fixedDelayString = "${jwt.refresh-token.cleanup-interval}")
+    public void deleteExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(Instant.now());
+        if (deleted > 0) {
+            log.info("Deleted {} expired refresh tokens", deleted);
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
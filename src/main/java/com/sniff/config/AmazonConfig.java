@@ -9,8 +9,10 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 
 @Configuration
+@Profile("!local-storage")
 @RequiredArgsConstructor
 public class AmazonConfig {
     @Value("${aws.bucket.access-key}")
@@ -0,0 +1,52 @@
+package com.sniff.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+@EnableScheduling
+public class FileStoreConfig {
+    @Value("${filestore.upload.threads}")
+    private int UPLOAD_THREADS;
+    @Value("${filestore.upload.queue-capacity}")
+    private int UPLOAD_QUEUE_CAPACITY;
+    @Value("${filestore.jobs.threads}")
+    private int JOB_THREADS;
+    @Value("${filestore.jobs.queue-capacity}")
+    private int JOB_QUEUE_CAPACITY;
+
+    /**
+     * Compresses and uploads the photos of one request in parallel. When the queue is full
+     * the request thread runs the task itself, which throttles callers instead of failing.
+     */
+    @Bean
+    public TaskExecutor imageUploadExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(UPLOAD_THREADS);
+        executor.setMaxPoolSize(UPLOAD_THREADS);
+        executor.setQueueCapacity(UPLOAD_QUEUE_CAPACITY);
+        executor.setThreadNamePrefix("image-upload-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    /**
+     * Runs asynchronous image jobs. A full queue rejects new jobs instead of running them on
+     * the request thread, which is exactly what the asynchronous mode is there to avoid.
+     */
+    @Bean
+    public TaskExecutor imageJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(JOB_THREADS);
+        executor.setMaxPoolSize(JOB_THREADS);
+        executor.setQueueCapacity(JOB_QUEUE_CAPACITY);
+        executor.setThreadNamePrefix("image-job-");
+        return executor;
+    }
+}
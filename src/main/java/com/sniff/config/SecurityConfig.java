@@ -1,8 +1,8 @@
 package com.sniff.config;
 
-import com.sniff.jwt.JwtValidationFilter;
 import com.sniff.jwt.handler.JwtAccessDeniedHandler;
 import com.sniff.jwt.handler.JwtAuthenticationEntryPoint;
+import com.sniff.jwt.handler.JwtInvalidTokenEntryPoint;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -11,9 +11,7 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.config.annotation.web.configurers.oauth2.server.resource.OAuth2ResourceServerConfigurer;
 import org.springframework.security.web.SecurityFilterChain;
-import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 
 import static org.springframework.http.HttpMethod.*;
@@ -27,7 +25,7 @@ import static org.springframework.security.config.http.SessionCreationPolicy.STA
 public class SecurityConfig {
     private final JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
     private final JwtAccessDeniedHandler jwtAccessDeniedHandler;
-    private final JwtValidationFilter jwtValidationFilter;
+    private final JwtInvalidTokenEntryPoint jwtInvalidTokenEntryPoint;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -48,17 +46,20 @@ public class SecurityConfig {
                 .and()
                 .authorizeHttpRequests((authz) -> authz
                         .requestMatchers(POST, "/api/v1/auth/**").permitAll()
-                        .requestMatchers(GET, "/api/v1/users/**", "/api/v1/pets/**", "/api/v1/location/**").permitAll()
+                        .requestMatchers(GET, "/api/v1/users/**", "/api/v1/pets/**", "/api/v1/location/**", "/files/**").permitAll()
+                        .requestMatchers(GET, "/.well-known/jwks.json").permitAll()
                         .requestMatchers("/api-docs/**", "/swagger-ui/**", "/swagger-ui.html", "/swagger/**").permitAll()
+                        .requestMatchers(PUT, "/files/**").permitAll()
                         .requestMatchers("/error").permitAll()
                         .anyRequest().authenticated()
                 )
-                .oauth2ResourceServer(OAuth2ResourceServerConfigurer::jwt)
+                .oauth2ResourceServer(c -> c
+                        .jwt(withDefaults())
+                        .authenticationEntryPoint(jwtInvalidTokenEntryPoint))
                 .exceptionHandling(c -> c
                         .authenticationEntryPoint(jwtAuthenticationEntryPoint)
                         .accessDeniedHandler(jwtAccessDeniedHandler)
-                )
-                .addFilterBefore(jwtValidationFilter, UsernamePasswordAuthenticationFilter.class);
+                );
         return http.build();
     }
 
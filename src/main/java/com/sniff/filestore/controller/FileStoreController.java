@@ -1,6 +1,12 @@
 package com.sniff.filestore.controller;
 
+import com.sniff.filestore.model.request.DirectUploadCompletion;
+import com.sniff.filestore.model.request.DirectUploadRequest;
+import com.sniff.filestore.model.response.DirectUpload;
+import com.sniff.filestore.model.response.ImageJob;
+import com.sniff.filestore.service.DirectUploadService;
 import com.sniff.filestore.service.FileStoreService;
+import com.sniff.filestore.service.ImageJobService;
 import com.sniff.utils.HttpResponse;
 import com.sniff.utils.UrlModel;
 import io.swagger.v3.oas.annotations.Operation;
@@ -14,6 +20,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.security.SecurityScheme;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -22,6 +29,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
+import java.util.UUID;
 
 @RestController
 @RequiredArgsConstructor
@@ -37,6 +45,8 @@ import java.util.List;
 @Validated
 public class FileStoreController {
     private final FileStoreService fileStoreService;
+    private final ImageJobService imageJobService;
+    private final DirectUploadService directUploadService;
 
     @SecurityRequirement(name = "bearerAuth")
     @Operation(
@@ -80,6 +90,149 @@ public class FileStoreController {
         return new UrlModel(fileStoreService.uploadPetPhotos(id, images));
     }
 
+    @SecurityRequirement(name = "bearerAuth")
+    @Operation(
+            summary = "Asynchronous image upload to user's profile",
+            description = "The image is processed in the background, poll the returned job for the result")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Image accepted for processing",
+                    content = { @Content(schema = @Schema(implementation = ImageJob.class)) }),
+            @ApiResponse(responseCode = "400", description = "Invalid request",
+                    content = { @Content(schema = @Schema(implementation = HttpResponse.class)) }),
+            @ApiResponse(responseCode = "503", description = "Too many images are being processed",
+                    content = { @Content(schema = @Schema(implementation = HttpResponse.class)) }) })
+    @PostMapping(
+            path = "users/{id}/upload/async",
+            consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ImageJob uploadUserAvatarAsync(@PathVariable Long id,
+                                          @Parameter(required = true, description = "Image file")
+                                          @RequestParam
+                                          MultipartFile image){
+        return imageJobService.submitUserAvatar(id, image);
+    }
+
+    @SecurityRequirement(name = "bearerAuth")
+    @Operation(
+            summary = "Asynchronous image upload to pet's profile",
+            description = "The images are processed in the background, poll the returned job for the result")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Images accepted for processing",
+                    content = { @Content(schema = @Schema(implementation = ImageJob.class)) }),
+            @ApiResponse(responseCode = "400", description = "Invalid request",
+                    content = { @Content(schema = @Schema(implementation = HttpResponse.class)) }),
+            @ApiResponse(responseCode = "503", description = "Too many images are being processed",
+                    content = { @Content(schema = @Schema(implementation = HttpResponse.class)) }) })
+    @PostMapping(
+            path = "pets/{id}/upload/async",
+            consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ImageJob uploadPetProfilesPhotosAsync(@PathVariable Long id,
+                                                 @Parameter(required = true, description = "Image file")
+                                                 @RequestParam
+                                                 List<MultipartFile> images){
+        return imageJobService.submitPetPhotos(id, images);
+    }
+
+    @SecurityRequirement(name = "bearerAuth")
+    @Operation(
+            summary = "Direct image upload to user's profile",
+            description = "Returns a presigned URL to PUT the image to, then complete the upload with its id")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Upload URL created"),
+            @ApiResponse(responseCode = "400", description = "Invalid request",
+                    content = { @Content(schema = @Schema(implementation = HttpResponse.class)) }) })
+    @PostMapping(
+            path = "users/{id}/upload/direct",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @ResponseStatus(HttpStatus.OK)
+    public List<DirectUpload> createUserAvatarUpload(@PathVariable Long id,
+                                                     @Valid @RequestBody DirectUploadRequest request) {
+        return directUploadService.createUserAvatarUpload(id, request);
+    }
+
+    @SecurityRequirement(name = "bearerAuth")
+    @Operation(
+            summary = "Complete direct image upload to user's profile",
+            description = "The uploaded image is checked and processed in the background, poll the returned job for the result")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Image accepted for processing",
+                    content = { @Content(schema = @Schema(implementation = ImageJob.class)) }),
+            @ApiResponse(responseCode = "400", description = "Invalid request",
+                    content = { @Content(schema = @Schema(implementation = HttpResponse.class)) }),
+            @ApiResponse(responseCode = "503", description = "Too many images are being processed",
+                    content = { @Content(schema = @Schema(implementation = HttpResponse.class)) }) })
+    @PostMapping(
+            path = "users/{id}/upload/direct/complete",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ImageJob completeUserAvatarUpload(@PathVariable Long id,
+                                             @Valid @RequestBody DirectUploadCompletion completion) {
+        return directUploadService.completeUserAvatarUpload(id, completion);
+    }
+
+    @SecurityRequirement(name = "bearerAuth")
+    @Operation(
+            summary = "Direct image upload to pet's profile",
+            description = "Returns a presigned URL per image to PUT it to, then complete the upload with their ids")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Upload URLs created"),
+            @ApiResponse(responseCode = "400", description = "Invalid request",
+                    content = { @Content(schema = @Schema(implementation = HttpResponse.class)) }) })
+    @PostMapping(
+            path = "pets/{id}/upload/direct",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @ResponseStatus(HttpStatus.OK)
+    public List<DirectUpload> createPetPhotosUpload(@PathVariable Long id,
+                                                    @Valid @RequestBody DirectUploadRequest request) {
+        return directUploadService.createPetPhotosUpload(id, request);
+    }
+
+    @SecurityRequirement(name = "bearerAuth")
+    @Operation(
+            summary = "Complete direct image upload to pet's profile",
+            description = "The uploaded images are checked and processed in the background, poll the returned job for the result")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Images accepted for processing",
+                    content = { @Content(schema = @Schema(implementation = ImageJob.class)) }),
+            @ApiResponse(responseCode = "400", description = "Invalid request",
+                    content = { @Content(schema = @Schema(implementation = HttpResponse.class)) }),
+            @ApiResponse(responseCode = "503", description = "Too many images are being processed",
+                    content = { @Content(schema = @Schema(implementation = HttpResponse.class)) }) })
+    @PostMapping(
+            path = "pets/{id}/upload/direct/complete",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ImageJob completePetPhotosUpload(@PathVariable Long id,
+                                            @Valid @RequestBody DirectUploadCompletion completion) {
+        return directUploadService.completePetPhotosUpload(id, completion);
+    }
+
+    @SecurityRequirement(name = "bearerAuth")
+    @Operation(
+            summary = "Get status of the asynchronous image upload",
+            description = "Jobs are kept in memory of the node that accepted the upload for an hour after they " +
+                    "finish. They are lost when that node restarts, and with several nodes the job has to be " +
+                    "polled through the same node, so deployments need a single node or sticky sessions")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200",
+                    content = { @Content(schema = @Schema(implementation = ImageJob.class)) }),
+            @ApiResponse(responseCode = "404", description = "Image job not found",
+                    content = { @Content(schema = @Schema(implementation = HttpResponse.class)) }) })
+    @GetMapping("jobs/{id}")
+    @ResponseStatus(HttpStatus.OK)
+    public ImageJob getImageJob(@PathVariable UUID id) {
+        return imageJobService.getJob(id);
+    }
+
     @SecurityRequirement(name = "bearerAuth")
     @Operation(
             summary = "Delete some images from pet profile")
@@ -0,0 +1,119 @@
+package com.sniff.filestore.controller;
+
+import com.sniff.filestore.storage.LocalObjectStorage;
+import com.sniff.filestore.upload.SizeLimitedInputStream;
+import io.swagger.v3.oas.annotations.Hidden;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Serves the images of {@link LocalObjectStorage}. When the connector supports sendfile the file
+ * is handed over to Tomcat, which writes it to the socket without copying it through the heap,
+ * otherwise it is transferred from a {@link FileChannel} to the response.
+ */
+@Hidden
+@RestController
+@Profile("local-storage")
+@RequiredArgsConstructor
+public class LocalFileController {
+    private static final String FILES_PATTERN = "/files/**";
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final LocalObjectStorage localObjectStorage;
+    @Value("${filestore.direct-upload.max-size}")
+    private DataSize MAX_UPLOAD_SIZE;
+
+    @GetMapping(FILES_PATTERN)
+    public void getFile(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path file;
+        try {
+            file = localObjectStorage.resolve(getKey(request));
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (!Files.isRegularFile(file)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        long size = Files.size(file);
+        response.setContentType(MediaTypeFactory.getMediaType(file.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+        response.setContentLengthLong(size);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL.getHeaderValue());
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, size);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, READ)) {
+            WritableByteChannel output = Channels.newChannel(response.getOutputStream());
+            for (long position = 0; position < size; ) {
+                position += channel.transferTo(position, size - position, output);
+            }
+        }
+    }
+
+    /**
+     * Accepts uploads through the URLs presigned by {@link LocalObjectStorage#presignPut}.
+     * The size limit is checked on the declared length and again while the body is streamed,
+     * since chunked requests declare none; an upload that goes past it is not stored.
+     */
+    @PutMapping(FILES_PATTERN)
+    public void putFile(@RequestParam long expires,
+                        @RequestParam String signature,
+                        HttpServletRequest request,
+                        HttpServletResponse response) throws IOException {
+        String key = getKey(request);
+        if (!localObjectStorage.isValidSignature(key, request.getContentType(), expires, signature)) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+        if (request.getContentLengthLong() > MAX_UPLOAD_SIZE.toBytes()) {
+            response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+            return;
+        }
+        try {
+            localObjectStorage.put(key, new SizeLimitedInputStream(request.getInputStream(), MAX_UPLOAD_SIZE.toBytes()));
+        } catch (SizeLimitedInputStream.LimitExceededException e) {
+            response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+        }
+    }
+
+    private String getKey(HttpServletRequest request) {
+        String path = (String) request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE);
+        return pathMatcher.extractPathWithinPattern(FILES_PATTERN, path);
+    }
+}
@@ -0,0 +1,21 @@
+package com.sniff.filestore.encoding;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Encodes stored images. Every encoder bean is picked up by {@link ImageEncodingPolicy}, so
+ * formats the JDK cannot write, such as WebP, are added by registering another implementation.
+ */
+public interface ImageEncoder {
+    String getFormat();
+
+    String getContentType();
+
+    String getExtension();
+
+    boolean supportsTransparency();
+
+    void encode(BufferedImage image, OutputStream output) throws IOException;
+}
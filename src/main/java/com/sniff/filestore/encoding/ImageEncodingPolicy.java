@@ -0,0 +1,80 @@
+package com.sniff.filestore.encoding;
+
+import com.sniff.filestore.enums.ImageVariant;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
+import java.awt.image.Raster;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.sniff.filestore.enums.ImageVariant.FULL;
+
+/**
+ * Decides how stored images are sized and encoded:
+ * <ul>
+ *     <li>the full variant is bounded by {@code filestore.encoding.max-size} on the longer edge;</li>
+ *     <li>the preferred format, if set, is used when its encoder can hold the image, and a preferred
+ *     format without a registered encoder fails startup;</li>
+ *     <li>otherwise JPEGs stay JPEG, and opaque, non-palette PNGs (photos) become JPEG
+ *     when {@code filestore.encoding.png-to-jpeg} is on, while the rest stay PNG.</li>
+ * </ul>
+ */
+@Component
+public class ImageEncodingPolicy {
+    private final Map<String, ImageEncoder> encoders;
+    private final int maxSize;
+    private final boolean pngToJpeg;
+    private final ImageEncoder preferredEncoder;
+
+    public ImageEncodingPolicy(List<ImageEncoder> encoders,
+                               @Value("${filestore.encoding.max-size}") int maxSize,
+                               @Value("${filestore.encoding.png-to-jpeg}") boolean pngToJpeg,
+                               @Value("${filestore.encoding.preferred-format:}") String preferredFormat) {
+        this.encoders = encoders.stream().collect(Collectors.toMap(ImageEncoder::getFormat, Function.identity()));
+        this.maxSize = maxSize;
+        this.pngToJpeg = pngToJpeg;
+        this.preferredEncoder = preferredFormat.isBlank() ? null : this.encoders.get(preferredFormat);
+        if (!preferredFormat.isBlank() && preferredEncoder == null) {
+            throw new IllegalStateException("No image encoder for preferred format '" + preferredFormat
+                    + "', registered formats are " + this.encoders.keySet());
+        }
+    }
+
+    public int maxSize(ImageVariant variant) {
+        return variant == FULL ? maxSize : variant.getMaxSize();
+    }
+
+    public ImageEncoder encoderFor(String contentType, BufferedImage image) {
+        if (preferredEncoder != null && (preferredEncoder.supportsTransparency() || isOpaque(image))) {
+            return preferredEncoder;
+        }
+        boolean jpeg = "image/jpeg".equals(contentType)
+                || pngToJpeg && !(image.getColorModel() instanceof IndexColorModel) && isOpaque(image);
+        return encoders.get(jpeg ? "jpeg" : "png");
+    }
+
+    private static boolean isOpaque(BufferedImage image) {
+        if (!image.getColorModel().hasAlpha()) {
+            return true;
+        }
+        Raster alpha = image.getAlphaRaster();
+        if (alpha == null) {
+            return false;
+        }
+        int[] row = new int[image.getWidth()];
+        for (int y = 0; y < image.getHeight(); y++) {
+            alpha.getSamples(0, y, image.getWidth(), 1, 0, row);
+            for (int value : row) {
+                if (value != 255) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,75 @@
+package com.sniff.filestore.encoding;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+
+@Component
+public class JpegImageEncoder implements ImageEncoder {
+    private final float quality;
+
+    public JpegImageEncoder(@Value("${filestore.encoding.jpeg-quality}") float quality) {
+        this.quality = quality;
+    }
+
+    @Override
+    public String getFormat() {
+        return "jpeg";
+    }
+
+    @Override
+    public String getContentType() {
+        return "image/jpeg";
+    }
+
+    @Override
+    public String getExtension() {
+        return "jpg";
+    }
+
+    @Override
+    public boolean supportsTransparency() {
+        return false;
+    }
+
+    @Override
+    public void encode(BufferedImage image, OutputStream output) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(getFormat()).next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(quality);
+        try (ImageOutputStream imageOutput = ImageIO.createImageOutputStream(output)) {
+            writer.setOutput(imageOutput);
+            writer.write(null, new IIOImage(toRgb(image), null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    /**
+     * JPEG has no alpha channel, so transparent pixels are flattened onto white.
+     */
+    private static BufferedImage toRgb(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB || image.getType() == BufferedImage.TYPE_3BYTE_BGR) {
+            return image;
+        }
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = rgb.createGraphics();
+        try {
+            graphics.drawImage(image, 0, 0, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        return rgb;
+    }
+}
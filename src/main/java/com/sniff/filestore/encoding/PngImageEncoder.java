@@ -0,0 +1,36 @@
+package com.sniff.filestore.encoding;
+
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+
+@Component
+public class PngImageEncoder implements ImageEncoder {
+    @Override
+    public String getFormat() {
+        return "png";
+    }
+
+    @Override
+    public String getContentType() {
+        return "image/png";
+    }
+
+    @Override
+    public String getExtension() {
+        return "png";
+    }
+
+    @Override
+    public boolean supportsTransparency() {
+        return true;
+    }
+
+    @Override
+    public void encode(BufferedImage image, OutputStream output) throws IOException {
+        ImageIO.write(image, getFormat(), output);
+    }
+}
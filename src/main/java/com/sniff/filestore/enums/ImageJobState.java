@@ -0,0 +1,5 @@
+package com.sniff.filestore.enums;
+
+public enum ImageJobState {
+    PENDING, PROCESSING, COMPLETED, FAILED
+}
@@ -0,0 +1,76 @@
+package com.sniff.filestore.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.regex.Pattern;
+
+/**
+ * Size variants stored for every uploaded image, from the largest to the smallest. The full
+ * variant keeps the key of the uploaded image, the others live in a sub folder next to it,
+ * so the URL of any variant can be derived from the stored full-size URL.
+ * <p>
+ * Images uploaded before variants existed have only the full variant. Variants are stored only
+ * for content-addressed images, so a file name that is the SHA-256 of the image is the marker
+ * telling the two apart, and {@link #url(String)} falls back to the full URL for older images.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ImageVariant {
+    FULL("", 0),
+    CARD("card/", 600),
+    THUMBNAIL("thumbnail/", 200);
+
+    private static final Pattern CONTENT_ADDRESSED_NAME = Pattern.compile("[0-9a-f]{64}\\.[a-z0-9]+");
+
+    private final String folder;
+    /**
+     * Bound of the longer edge in pixels, the full variant is bounded by the encoding policy.
+     */
+    private final int maxSize;
+
+    public String key(String fileName) {
+        return folder + fileName;
+    }
+
+    /**
+     * Key of the full variant that the key of any variant belongs to.
+     */
+    public static String fullKey(String key) {
+        int fileNameIndex = key.lastIndexOf('/') + 1;
+        String directory = key.substring(0, fileNameIndex);
+        for (ImageVariant variant : values()) {
+            if (!variant.folder.isEmpty()
+                    && (directory.equals(variant.folder) || directory.endsWith("/" + variant.folder))) {
+                return directory.substring(0, directory.length() - variant.folder.length())
+                        + key.substring(fileNameIndex);
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Whether the smaller variants of the image were stored along with it.
+     */
+    public static boolean hasVariants(String fullUrl) {
+        return CONTENT_ADDRESSED_NAME.matcher(fullUrl.substring(fullUrl.lastIndexOf('/') + 1)).matches();
+    }
+
+    public String url(String fullUrl) {
+        if (fullUrl == null) {
+            return null;
+        }
+        if (!hasVariants(fullUrl)) {
+            return fullUrl;
+        }
+        return variantUrl(fullUrl);
+    }
+
+    /**
+     * URL of this variant whether or not it was stored, for deleting every object an image may have.
+     */
+    public String variantUrl(String fullUrl) {
+        int fileNameIndex = fullUrl.lastIndexOf('/') + 1;
+        return fullUrl.substring(0, fileNameIndex) + folder + fullUrl.substring(fileNameIndex);
+    }
+}
@@ -0,0 +1,7 @@
+package com.sniff.filestore.exception;
+
+public class ImageJobNotFoundException extends RuntimeException {
+    public ImageJobNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.sniff.filestore.exception;
+
+public class ImageJobsQueueFullException extends RuntimeException {
+    public ImageJobsQueueFullException(String message) {
+        super(message);
+    }
+}
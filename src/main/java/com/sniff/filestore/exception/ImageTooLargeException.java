@@ -0,0 +1,7 @@
+package com.sniff.filestore.exception;
+
+public class ImageTooLargeException extends FileStoreException {
+    public ImageTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.sniff.filestore.exception;
+
+public class UploadNotFoundException extends FileStoreException {
+    public UploadNotFoundException(String message) {
+        super(message);
+    }
+}
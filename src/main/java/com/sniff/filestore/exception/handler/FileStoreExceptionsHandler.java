@@ -1,6 +1,8 @@
 package com.sniff.filestore.exception.handler;
 
 import com.sniff.filestore.exception.FileStoreException;
+import com.sniff.filestore.exception.ImageJobNotFoundException;
+import com.sniff.filestore.exception.ImageJobsQueueFullException;
 import com.sniff.utils.HttpResponse;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -18,4 +20,16 @@ public class FileStoreExceptionsHandler {
     public HttpResponse handlerFileStoreExceptions(RuntimeException e) {
         return new HttpResponse(e.getMessage());
     }
+
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    @ExceptionHandler(ImageJobNotFoundException.class)
+    public HttpResponse handlerImageJobNotFoundException(ImageJobNotFoundException e) {
+        return new HttpResponse(e.getMessage());
+    }
+
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ExceptionHandler(ImageJobsQueueFullException.class)
+    public HttpResponse handlerImageJobsQueueFullException(ImageJobsQueueFullException e) {
+        return new HttpResponse(e.getMessage());
+    }
 }
@@ -0,0 +1,29 @@
+package com.sniff.filestore.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Reference count of a content-addressed image, keyed by the object key of its full variant.
+ * Images stored before content addressing have no row and belong to a single entity.
+ * The object is {@code stored} once every variant has been uploaded; until then each holder of a
+ * reference uploads the content itself instead of relying on the upload that created the row.
+ */
+@Entity(name = "stored_object")
+@Table(name = "stored_object")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class StoredObject {
+    @Id
+    @Column(name = "object_key")
+    private String objectKey;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @Column(name = "stored", nullable = false)
+    private boolean stored;
+}
@@ -0,0 +1,19 @@
+package com.sniff.filestore.model.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.UUID;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class DirectUploadCompletion {
+    @NotEmpty(message = "Upload ids shouldn't be empty")
+    private List<UUID> uploadIds;
+}
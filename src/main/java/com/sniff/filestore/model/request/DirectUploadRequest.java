@@ -0,0 +1,18 @@
+package com.sniff.filestore.model.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class DirectUploadRequest {
+    @NotEmpty(message = "Content types of the images shouldn't be empty")
+    private List<String> contentTypes;
+}
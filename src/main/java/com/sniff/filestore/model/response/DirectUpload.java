@@ -0,0 +1,19 @@
+package com.sniff.filestore.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Presigned URL the client uploads one image to with {@code PUT} and the given {@code Content-Type}.
+ */
+@Getter
+@AllArgsConstructor
+public class DirectUpload {
+    private UUID uploadId;
+    private String url;
+    private String contentType;
+    private Instant expiresAt;
+}
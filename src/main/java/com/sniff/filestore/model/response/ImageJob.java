@@ -0,0 +1,19 @@
+package com.sniff.filestore.model.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.sniff.filestore.enums.ImageJobState;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImageJob {
+    private UUID id;
+    private ImageJobState state;
+    private List<String> urls;
+    private String error;
+}
@@ -0,0 +1,21 @@
+package com.sniff.filestore.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import static com.sniff.filestore.enums.ImageVariant.*;
+
+@Getter
+@AllArgsConstructor
+public class ImageVariants {
+    private String thumbnail;
+    private String card;
+    private String full;
+
+    public static ImageVariants of(String fullUrl) {
+        if (fullUrl == null) {
+            return null;
+        }
+        return new ImageVariants(THUMBNAIL.url(fullUrl), CARD.url(fullUrl), fullUrl);
+    }
+}
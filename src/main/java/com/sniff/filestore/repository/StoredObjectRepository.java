@@ -0,0 +1,44 @@
+package com.sniff.filestore.repository;
+
+import com.sniff.filestore.model.entity.StoredObject;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface StoredObjectRepository extends JpaRepository<StoredObject, String> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM stored_object o WHERE o.objectKey = :objectKey")
+    Optional<StoredObject> findForUpdate(String objectKey);
+
+    @Modifying
+    @Query("UPDATE stored_object o SET o.refCount = o.refCount + 1 WHERE o.objectKey = :objectKey")
+    int incrementRefCount(String objectKey);
+
+    @Modifying
+    @Query("UPDATE stored_object o SET o.stored = true WHERE o.objectKey = :objectKey")
+    int markStored(String objectKey);
+
+    @Modifying
+    @Query("UPDATE stored_object o SET o.refCount = o.refCount - 1 WHERE o.objectKey = :objectKey")
+    int decrementRefCount(String objectKey);
+
+    @Modifying
+    @Query("DELETE FROM stored_object o WHERE o.objectKey = :objectKey AND o.refCount <= 0")
+    int deleteUnreferenced(String objectKey);
+
+    /**
+     * The keys that someone holds a reference to, whether or not it is attached to an entity yet.
+     */
+    @Query("SELECT o.objectKey FROM stored_object o WHERE o.objectKey IN :objectKeys AND o.refCount > 0")
+    List<String> findReferencedKeys(Collection<String> objectKeys);
+
+    @Modifying
+    @Query("DELETE FROM stored_object o WHERE o.objectKey IN :objectKeys AND o.refCount <= 0")
+    int deleteAllUnreferenced(Collection<String> objectKeys);
+}
@@ -0,0 +1,158 @@
+package com.sniff.filestore.service;
+
+import com.sniff.auth.service.AuthVerifyService;
+import com.sniff.filestore.enums.FileStoreOperation;
+import com.sniff.filestore.exception.EmptyFileException;
+import com.sniff.filestore.exception.FailedToUploadFileException;
+import com.sniff.filestore.exception.ImageTooLargeException;
+import com.sniff.filestore.exception.UploadNotFoundException;
+import com.sniff.filestore.model.request.DirectUploadCompletion;
+import com.sniff.filestore.model.request.DirectUploadRequest;
+import com.sniff.filestore.model.response.DirectUpload;
+import com.sniff.filestore.model.response.ImageJob;
+import com.sniff.filestore.storage.ObjectStorage;
+import com.sniff.filestore.storage.ObjectSummary;
+import com.sniff.filestore.upload.ImageSource;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static com.sniff.filestore.enums.FileStoreOperation.PET;
+import static com.sniff.filestore.enums.FileStoreOperation.USER;
+import static com.sniff.utils.ImageUtils.ImageHeader;
+import static com.sniff.utils.ImageUtils.isImage;
+import static com.sniff.utils.ImageUtils.readImageHeader;
+
+/**
+ * Lets clients upload images straight to the storage. The API hands out presigned URLs for keys
+ * under {@value #UPLOADS_FOLDER}, and once the client reports the upload as complete it checks the
+ * size and the image header and leaves the variants to an image job, so the image bytes never pass
+ * through the API. Uploads are deleted once their job finishes, oversized ones as soon as they are
+ * reported, and abandoned ones by the sweeper.
+ * <p>
+ * S3 presigned PUT URLs cannot bound the size of the upload, so a client can store more than
+ * {@code filestore.direct-upload.max-size} under its upload key until it completes the upload or the
+ * sweeper's grace period passes. That is accepted: the key is its own, expires with the URL, and is
+ * never processed beyond the size check.
+ */
+@Service
+@RequiredArgsConstructor
+public class DirectUploadService {
+    public static final String UPLOADS_FOLDER = "uploads/";
+    /**
+     * Enough for the header of JPEG and PNG images, unless metadata such as embedded thumbnails
+     * or colour profiles push it further, in which case the whole upload is read.
+     */
+    private static final int HEADER_RANGE_BYTES = 64 * 1024;
+
+    private final ObjectStorage objectStorage;
+    private final FileStoreService fileStoreService;
+    private final ImageJobService imageJobService;
+    private final AuthVerifyService authVerifyService;
+    @Value("${filestore.direct-upload.expiry}")
+    private Duration UPLOAD_EXPIRY;
+    @Value("${filestore.direct-upload.max-size}")
+    private DataSize MAX_UPLOAD_SIZE;
+    @Value("${filestore.decoding.max-pixels}")
+    private long MAX_IMAGE_PIXELS;
+
+    public List<DirectUpload> createUserAvatarUpload(Long id, DirectUploadRequest request) {
+        authVerifyService.verifyAccess(id);
+        verifySingleImage(request.getContentTypes().size());
+        return createUploads(USER, id, request.getContentTypes());
+    }
+
+    public List<DirectUpload> createPetPhotosUpload(Long id, DirectUploadRequest request) {
+        fileStoreService.verifyPetPhotosUpload(id, request.getContentTypes().size());
+        return createUploads(PET, id, request.getContentTypes());
+    }
+
+    public ImageJob completeUserAvatarUpload(Long id, DirectUploadCompletion completion) {
+        authVerifyService.verifyAccess(id);
+        verifySingleImage(completion.getUploadIds().size());
+        List<String> keys = getUploadKeys(USER, id, completion.getUploadIds());
+        ImageSource image = verifyUpload(keys.get(0));
+        return imageJobService.submitUserAvatar(id, image, () -> objectStorage.deleteAll(keys));
+    }
+
+    public ImageJob completePetPhotosUpload(Long id, DirectUploadCompletion completion) {
+        fileStoreService.verifyPetPhotosUpload(id, completion.getUploadIds().size());
+        List<String> keys = getUploadKeys(PET, id, completion.getUploadIds());
+        List<ImageSource> images = keys.stream().map(this::verifyUpload).toList();
+        return imageJobService.submitPetPhotos(id, images, () -> objectStorage.deleteAll(keys));
+    }
+
+    private List<DirectUpload> createUploads(FileStoreOperation operation, Long id, List<String> contentTypes) {
+        contentTypes.forEach(contentType -> isImage(contentType));
+        Instant expiresAt = Instant.now().plus(UPLOAD_EXPIRY);
+        return contentTypes.stream()
+                .map(contentType -> {
+                    UUID uploadId = UUID.randomUUID();
+                    String url = objectStorage.presignPut(
+                            generateUploadKey(operation, id, uploadId), contentType, expiresAt);
+                    return new DirectUpload(uploadId, url, contentType, expiresAt);
+                })
+                .toList();
+    }
+
+    /**
+     * Checks the stored upload by its size and header only and returns it as a source that
+     * streams it from the storage when the job processes it. The header is read from a ranged
+     * request for the first {@value #HEADER_RANGE_BYTES} bytes.
+     */
+    private ImageSource verifyUpload(String key) {
+        ObjectSummary upload = objectStorage.head(key)
+                .orElseThrow(() -> new UploadNotFoundException("Upload not found"));
+        if (upload.size() == 0) {
+            throw new EmptyFileException("File must not be empty");
+        }
+        if (upload.size() > MAX_UPLOAD_SIZE.toBytes()) {
+            objectStorage.delete(key);
+            throw new ImageTooLargeException(
+                    String.format("Image must not be larger than %d MB", MAX_UPLOAD_SIZE.toMegabytes()));
+        }
+        InputStreamSource content = () -> objectStorage.get(key);
+        try {
+            ImageHeader header = readHeader(key, upload.size(), content);
+            return new ImageSource(content, header.contentType(), key);
+        } catch (IOException e) {
+            throw new FailedToUploadFileException(e.getMessage());
+        }
+    }
+
+    private ImageHeader readHeader(String key, long size, InputStreamSource content) throws IOException {
+        if (size <= HEADER_RANGE_BYTES) {
+            return readImageHeader(content, MAX_IMAGE_PIXELS);
+        }
+        try {
+            return readImageHeader(() -> objectStorage.get(key, HEADER_RANGE_BYTES), MAX_IMAGE_PIXELS);
+        } catch (IOException e) {
+            return readImageHeader(content, MAX_IMAGE_PIXELS);
+        }
+    }
+
+    private void verifySingleImage(int imagesCount) {
+        if (imagesCount != 1) {
+            throw new FailedToUploadFileException("You can upload only one avatar");
+        }
+    }
+
+    private List<String> getUploadKeys(FileStoreOperation operation, Long id, List<UUID> uploadIds) {
+        return uploadIds.stream()
+                .distinct()
+                .map(uploadId -> generateUploadKey(operation, id, uploadId))
+                .toList();
+    }
+
+    private String generateUploadKey(FileStoreOperation operation, Long id, UUID uploadId) {
+        return String.format("%s%s/%s/%s", UPLOADS_FOLDER, operation.name().toLowerCase(), id, uploadId);
+    }
+}
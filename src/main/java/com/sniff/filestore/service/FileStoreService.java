@@ -1,10 +1,18 @@
 package com.sniff.filestore.service;
 
-import com.amazonaws.services.s3.AmazonS3;
-import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.sniff.auth.service.AuthVerifyService;
+import com.sniff.filestore.encoding.ImageEncoder;
+import com.sniff.filestore.encoding.ImageEncodingPolicy;
 import com.sniff.filestore.enums.FileStoreOperation;
+import com.sniff.filestore.enums.ImageVariant;
 import com.sniff.filestore.exception.FailedToUploadFileException;
+import com.sniff.filestore.exception.FileStoreException;
+import com.sniff.filestore.model.entity.StoredObject;
+import com.sniff.filestore.repository.StoredObjectRepository;
+import com.sniff.filestore.storage.ObjectStorage;
+import com.sniff.filestore.upload.ImageSource;
+import com.sniff.filestore.upload.UploadBuffer;
+import com.sniff.filestore.upload.UploadBufferPool;
 import com.sniff.pet.exceptions.PetNotBelongingToUserException;
 import com.sniff.pet.exceptions.PetNotFoundException;
 import com.sniff.pet.model.entity.Pet;
@@ -14,134 +22,341 @@ import com.sniff.user.model.entity.User;
 import com.sniff.user.repository.UserRepository;
 import com.sniff.utils.UrlModel;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.awt.image.BufferedImage;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static com.sniff.filestore.enums.FileStoreOperation.PET;
 import static com.sniff.filestore.enums.FileStoreOperation.USER;
+import static com.sniff.filestore.enums.ImageVariant.FULL;
 import static com.sniff.utils.ImageUtils.*;
 
 @Service
 @Transactional
 @RequiredArgsConstructor
 public class FileStoreService {
-    @Value("${aws.bucket.name}")
-    private String bucketName;
-    private final AmazonS3 s3;
+    private static final Logger log = LoggerFactory.getLogger(FileStoreService.class);
+
+    private final ObjectStorage objectStorage;
     private final AuthVerifyService authVerifyService;
     private final UserRepository userRepository;
     private final PetRepository petRepository;
+    private final StoredObjectRepository storedObjectRepository;
+    private final UploadBufferPool uploadBufferPool;
+    private final TaskExecutor imageUploadExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final ImageEncodingPolicy imageEncodingPolicy;
     @Value("${max-total-pet-photos}")
     private int MAX_TOTAL_PET_PHOTOS;
+    @Value("${filestore.decoding.max-pixels}")
+    private long MAX_IMAGE_PIXELS;
 
     public List<String> uploadUserAvatar(Long id, MultipartFile image) {
         validateFile(image);
         authVerifyService.verifyAccess(id);
-        User user = getUserById(id);
+        return storeUserAvatar(id, ImageSource.of(image));
+    }
 
-        String objectKey = generateObjectKey(id, USER);
-        String imageName = getFileNameWithExtension(UUID.randomUUID().toString(), image.getOriginalFilename());
+    /**
+     * Stores the avatar without checking access, callers verify it beforehand.
+     * The new avatar is referenced by {@link #saveImage} before the previous one is released,
+     * so re-uploading the same image keeps its object.
+     */
+    public List<String> storeUserAvatar(Long id, ImageSource image) {
+        User user = getUserById(id);
 
-        try (InputStream inputStream = compressImage(image)) {
-            if(user.getAvatar() != null) {
-                deleteAllImagesByEntityId(id, USER);
+        try {
+            String previousAvatar = user.getAvatar();
+            String imageName = saveImage(USER, image);
+            user.setAvatar(generateUrl(imageName, USER));
+            if (previousAvatar != null) {
+                deleteImagesAfterCommit(releaseImages(List.of(previousAvatar)));
             }
-            saveImage(objectKey, imageName, inputStream);
-            user.setAvatar(generateUrl(id, imageName, USER));
             return Collections.singletonList(user.getAvatar());
         } catch (IOException e) {
             throw new FailedToUploadFileException(e.getMessage());
         }
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<String> uploadPetPhotos(Long id, List<MultipartFile> images) {
         validateFiles(images);
+        verifyPetPhotosUpload(id, images.size());
+        return storePetPhotos(id, images.stream().map(ImageSource::of).toList());
+    }
 
-        Pet pet = getPetById(id);
-
-        if(pet.getPhotos() != null && !pet.getPhotos().isEmpty()) {
-            deleteAllImagesByEntityId(id, PET);
-        }
-
-        User user = getUserById(authVerifyService.getIdFromSubject());
-        verifyUserContainsPetProfile(user, pet);
-        System.out.println(pet.getPhotos().size());
-        System.out.println(images.size());
-        if(pet.getPhotos().size() + images.size() > MAX_TOTAL_PET_PHOTOS) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void verifyPetPhotosUpload(Long id, int imagesCount) {
+        if(imagesCount > MAX_TOTAL_PET_PHOTOS) {
             throw new FailedToUploadFileException("You can't upload more than 5 photos");
         }
+        transactionTemplate.executeWithoutResult(status -> {
+            Pet pet = getPetById(id);
+            User user = getUserById(authVerifyService.getIdFromSubject());
+            verifyUserContainsPetProfile(user, pet);
+        });
+    }
 
-        String objectKey = generateObjectKey(id, PET);
-        for(MultipartFile image : images){
-            validateFile(image);
-            String imageName = getFileNameWithExtension(UUID.randomUUID().toString(),
-                    image.getOriginalFilename());
-            try (InputStream inputStream = compressImage(image)) {
-                saveImage(objectKey, imageName, inputStream);
-                pet.getPhotos().add(generateUrl(id, imageName, PET));
-            } catch (IOException e) {
-                throw new FailedToUploadFileException(e.getMessage());
-            }
+    /**
+     * Compresses and uploads the photos concurrently outside of any transaction, then replaces
+     * the pet photos in a short transaction that releases the previous photos. Every upload holds
+     * a reference to its image from the moment it is saved. If an upload or the final write fails,
+     * those references are released and the objects deleted unless another entity uses them; the
+     * previous photos are deleted once the transaction commits if nothing references them anymore.
+     * Access is not checked here, callers verify it with {@link #verifyPetPhotosUpload}.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<String> storePetPhotos(Long id, List<ImageSource> images) {
+        List<String> imageNames = uploadConcurrently(PET, images);
+
+        List<String> photos;
+        try {
+            photos = transactionTemplate.execute(status -> {
+                Pet pet = getPetById(id);
+                List<String> previousPhotos = new ArrayList<>(pet.getPhotos());
+                pet.getPhotos().clear();
+                imageNames.forEach(imageName -> pet.getPhotos().add(generateUrl(imageName, PET)));
+                deleteImagesAfterCommit(releaseImages(previousPhotos));
+                updateCoverPhoto(pet);
+                return new ArrayList<>(pet.getPhotos());
+            });
+        } catch (RuntimeException e) {
+            imageNames.forEach(imageName -> releaseUpload(PET, imageName));
+            throw e;
         }
-        return pet.getPhotos();
+        return photos;
     }
 
     public void deleteImagesByUrlsAndPetId(Long id, UrlModel urlModel) {
         Pet pet = getPetById(id);
         List<String> photoUrls = pet.getPhotos();
+        List<String> removedUrls = new ArrayList<>();
         for (String url : urlModel.getUrls()) {
-            if (photoUrls.contains(url)) {
-                deleteImageIfPresent(Optional.of(url));
-                photoUrls.remove(url);
+            if (photoUrls.remove(url)) {
+                removedUrls.add(url);
             }
         }
+        deleteImagesAfterCommit(releaseImages(removedUrls));
         pet.setPhotos(photoUrls);
+        updateCoverPhoto(pet);
         petRepository.save(pet);
     }
 
     public void deleteAllImagesByEntityId(Long id, FileStoreOperation operation) {
         if (operation.equals(USER)) {
             User user = getUserById(id);
-            deleteImageIfPresent(Optional.of(user.getAvatar()));
+            if (user.getAvatar() != null) {
+                deleteImagesAfterCommit(releaseImages(List.of(user.getAvatar())));
+            }
             user.setAvatar(null);
         } else if (operation.equals(PET)) {
             Pet pet = getPetById(id);
-            deleteImagesIfPresent(pet.getPhotos());
+            deleteImagesAfterCommit(releaseImages(pet.getPhotos()));
             pet.getPhotos().clear();
+            updateCoverPhoto(pet);
         }
     }
 
-    private void deleteImageIfPresent(Optional<String> imageUrl) {
-        if(imageUrl.isPresent()){
-            int prefixLength = "https://".length();
-            String image = imageUrl.get();
-            int bucketNameEndIndex = image.indexOf(".s3.amazonaws.com/");
-            String bucketName = image.substring(prefixLength, bucketNameEndIndex);
-            String key = image.substring(bucketNameEndIndex + ".s3.amazonaws.com/".length());
-            s3.deleteObject(bucketName, key);
+    /**
+     * Releases the avatar of the user and the photos of all their pets before the user is deleted.
+     */
+    public void deleteAllUserImages(User user) {
+        List<String> imageUrls = new ArrayList<>();
+        if (user.getAvatar() != null) {
+            imageUrls.add(user.getAvatar());
         }
+        user.getPets().forEach(pet -> imageUrls.addAll(pet.getPhotos()));
+        deleteImagesAfterCommit(releaseImages(imageUrls));
     }
 
-    private void deleteImagesIfPresent(List<String> imageUrls) {
-        for(String imageUrl : imageUrls){
-            deleteImageIfPresent(Optional.of(imageUrl));
+    private List<String> uploadConcurrently(FileStoreOperation operation, List<ImageSource> images) {
+        List<CompletableFuture<String>> uploads = images.stream()
+                .map(image -> CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return saveImage(operation, image);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, imageUploadExecutor))
+                .toList();
+
+        try {
+            CompletableFuture.allOf(uploads.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            uploads.stream()
+                    .filter(upload -> !upload.isCompletedExceptionally())
+                    .forEach(upload -> releaseUpload(operation, upload.join()));
+            Throwable cause = e.getCause() instanceof UncheckedIOException ? e.getCause().getCause() : e.getCause();
+            if (cause instanceof FileStoreException fileStoreException) {
+                throw fileStoreException;
+            }
+            throw new FailedToUploadFileException(cause.getMessage());
         }
+        return uploads.stream().map(CompletableFuture::join).toList();
     }
 
+    private void updateCoverPhoto(Pet pet) {
+        pet.setCoverPhoto(pet.getPhotos().stream().findFirst().orElse(null));
+    }
 
-    private void saveImage(String objectKey, String fileName, InputStream inputStream) throws IOException {
-        ObjectMetadata metadata = new ObjectMetadata();
-        metadata.setContentLength(inputStream.available());
-        s3.putObject(objectKey, fileName, inputStream, metadata);
+    /**
+     * Adds a reference to the object and tells whether it is already stored, in which case its
+     * upload can be skipped: the reference keeps concurrent releases from deleting it. An object
+     * that is referenced but not stored yet may still fail to upload, so it is uploaded again.
+     * The counter row is locked, and the first reference inserts it. When two first references
+     * race for the insert outside a transaction, the loser retries and finds the winner's row.
+     */
+    private boolean retainObject(String key) {
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> lockAndRetain(key)));
+        } catch (DataIntegrityViolationException e) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                throw e;
+            }
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> lockAndRetain(key)));
+        }
+    }
+
+    private boolean lockAndRetain(String key) {
+        Optional<StoredObject> storedObject = storedObjectRepository.findForUpdate(key);
+        if (storedObject.isPresent()) {
+            storedObjectRepository.incrementRefCount(key);
+            return storedObject.get().isStored();
+        }
+        storedObjectRepository.saveAndFlush(new StoredObject(key, 1, false));
+        return false;
+    }
+
+    /**
+     * Drops a reference to the image and tells whether it is no longer used. Images without
+     * a counter predate content addressing and are used only by the entity releasing them.
+     */
+    private boolean releaseImage(String imageUrl) {
+        return releaseObject(objectStorage.getKey(imageUrl));
+    }
+
+    private boolean releaseObject(String key) {
+        return storedObjectRepository.decrementRefCount(key) == 0
+                || storedObjectRepository.deleteUnreferenced(key) > 0;
+    }
+
+    /**
+     * Drops the reference {@link #saveImage} took for an upload that is not attached to any entity,
+     * and deletes its variants if nothing else uses them.
+     */
+    private void releaseUpload(FileStoreOperation operation, String fileName) {
+        String key = generateObjectKey(FULL, fileName, operation);
+        if (Boolean.TRUE.equals(transactionTemplate.execute(status -> releaseObject(key)))) {
+            objectStorage.deleteAll(Arrays.stream(ImageVariant.values())
+                    .map(variant -> generateObjectKey(variant, fileName, operation))
+                    .toList());
+        }
+    }
+
+    /**
+     * Releases the images and returns the ones no longer used by anything.
+     */
+    private List<String> releaseImages(List<String> imageUrls) {
+        return imageUrls.stream().filter(this::releaseImage).toList();
+    }
+
+    /**
+     * Deletes every variant of the images in batch requests once the current transaction commits,
+     * so a slow or failing storage neither holds the transaction open nor rolls it back. Objects
+     * a failed delete leaves behind are removed later by the {@link StorageSweeper}.
+     */
+    private void deleteImagesAfterCommit(List<String> imageUrls) {
+        if (imageUrls.isEmpty()) {
+            return;
+        }
+        List<String> keys = imageUrls.stream()
+                .map(objectStorage::getKey)
+                .flatMap(key -> Arrays.stream(ImageVariant.values()).map(variant -> variant.variantUrl(key)))
+                .toList();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            deleteObjects(keys);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                deleteObjects(keys);
+            }
+        });
+    }
+
+    private void deleteObjects(List<String> keys) {
+        try {
+            objectStorage.deleteAll(keys);
+        } catch (RuntimeException e) {
+            log.warn("Failed to delete {} stored objects, leaving them to the sweeper", keys.size(), e);
+        }
+    }
+
+    /**
+     * Decodes the image once and stores every {@link ImageVariant}, each resized from the previous one
+     * and encoded as the {@link ImageEncodingPolicy} decides. The file name is the SHA-256 of the encoded
+     * full variant with the encoder's extension, so the same processed image always maps to the same
+     * objects. A reference to the image is taken before anything is uploaded, and the upload is skipped
+     * when the image is already stored; otherwise every variant is uploaded, overwriting identical
+     * content a concurrent upload may have written, and the image is marked stored. The caller owns
+     * the reference; if any variant fails, it is released and the variants uploaded so far are
+     * removed unless something else references them.
+     */
+    private String saveImage(FileStoreOperation operation, ImageSource image) throws IOException {
+        BufferedImage resized = readImage(image.content(), imageEncodingPolicy.maxSize(FULL), MAX_IMAGE_PIXELS);
+        ImageEncoder encoder = imageEncodingPolicy.encoderFor(image.contentType(), resized);
+        String fileName = null;
+        String key = null;
+        boolean retained = false;
+        UploadBuffer buffer = uploadBufferPool.acquire();
+        try {
+            for (ImageVariant variant : ImageVariant.values()) {
+                resized = resizeImage(resized, imageEncodingPolicy.maxSize(variant));
+                buffer.reset();
+                encoder.encode(resized, buffer);
+                if (fileName == null) {
+                    fileName = buffer.sha256() + "." + encoder.getExtension();
+                    key = generateObjectKey(FULL, fileName, operation);
+                    boolean stored = retainObject(key);
+                    retained = true;
+                    if (stored) {
+                        return fileName;
+                    }
+                }
+                objectStorage.put(generateObjectKey(variant, fileName, operation), buffer, encoder.getContentType());
+            }
+            String storedKey = key;
+            transactionTemplate.execute(status -> storedObjectRepository.markStored(storedKey));
+            return fileName;
+        } catch (IOException | RuntimeException e) {
+            if (retained) {
+                releaseUpload(operation, fileName);
+            }
+            throw e;
+        } finally {
+            uploadBufferPool.release(buffer);
+        }
     }
 
     private void validateFile(MultipartFile image) {
@@ -156,13 +371,12 @@ public class FileStoreService {
         }
     }
 
-    private String generateObjectKey(Long id, FileStoreOperation operation) {
-        return String.format("%s/%s/%s", bucketName, getGeneralFolderName(operation), id);
+    private String generateObjectKey(ImageVariant variant, String fileName, FileStoreOperation operation) {
+        return String.format("%s/%s", getGeneralFolderName(operation), variant.key(fileName));
     }
 
-    private String generateUrl(Long id, String fileName, FileStoreOperation operation) {
-        return String.format("https://%s.s3.amazonaws.com/%s/%s/%s",
-                bucketName, getGeneralFolderName(operation), id, fileName);
+    private String generateUrl(String fileName, FileStoreOperation operation) {
+        return objectStorage.getUrl(generateObjectKey(FULL, fileName, operation));
     }
 
     private String getGeneralFolderName(FileStoreOperation operation) {
@@ -0,0 +1,219 @@
+package com.sniff.filestore.service;
+
+import com.sniff.auth.service.AuthVerifyService;
+import com.sniff.filestore.enums.ImageJobState;
+import com.sniff.filestore.exception.FailedToUploadFileException;
+import com.sniff.filestore.exception.ImageJobNotFoundException;
+import com.sniff.filestore.exception.ImageJobsQueueFullException;
+import com.sniff.filestore.model.response.ImageJob;
+import com.sniff.filestore.upload.ImageSource;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static com.sniff.filestore.enums.ImageJobState.*;
+import static com.sniff.utils.ImageUtils.isFileEmpty;
+import static com.sniff.utils.ImageUtils.isImage;
+
+/**
+ * Accepts uploads without processing them on the request thread: the raw files are written to
+ * the staging directory and a bounded worker pool compresses and uploads them later. Jobs are
+ * kept in memory and forgotten once they have been finished for longer than the retention.
+ * <p>
+ * Jobs live only on the node that accepted them: they are lost on restart, and with several
+ * nodes a job can be polled only through the node that runs it, so the API has to run on a
+ * single node or behind sticky sessions. Files left in the staging directory by a previous
+ * run have no job anymore and are deleted on startup.
+ */
+@Service
+@RequiredArgsConstructor
+public class ImageJobService {
+    private static final Logger log = LoggerFactory.getLogger(ImageJobService.class);
+
+    private final FileStoreService fileStoreService;
+    private final AuthVerifyService authVerifyService;
+    private final TaskExecutor imageJobExecutor;
+    private final Map<UUID, Job> jobs = new ConcurrentHashMap<>();
+    @Value("${filestore.staging.dir}")
+    private String STAGING_DIR;
+    @Value("${filestore.jobs.retention}")
+    private Duration JOB_RETENTION;
+
+    @PostConstruct
+    public void prepareStagingDir() throws IOException {
+        Path stagingDir = Files.createDirectories(Path.of(STAGING_DIR));
+        int deleted = 0;
+        try (Stream<Path> files = Files.list(stagingDir)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                Files.deleteIfExists(file);
+                deleted++;
+            }
+        }
+        if (deleted > 0) {
+            log.info("Deleted {} images staged before the restart", deleted);
+        }
+    }
+
+    public ImageJob submitUserAvatar(Long id, MultipartFile image) {
+        validateFile(image);
+        authVerifyService.verifyAccess(id);
+        return submitStaged(stage(List.of(image)), images -> fileStoreService.storeUserAvatar(id, images.get(0)));
+    }
+
+    public ImageJob submitPetPhotos(Long id, List<MultipartFile> images) {
+        images.forEach(this::validateFile);
+        fileStoreService.verifyPetPhotosUpload(id, images.size());
+        return submitStaged(stage(images), stagedImages -> fileStoreService.storePetPhotos(id, stagedImages));
+    }
+
+    /**
+     * Submits an avatar that is already stored elsewhere, such as a direct upload. Access is not
+     * checked here, callers verify it beforehand; {@code cleanup} runs once the job has finished.
+     */
+    public ImageJob submitUserAvatar(Long id, ImageSource image, Runnable cleanup) {
+        return submit(List.of(image), cleanup, images -> fileStoreService.storeUserAvatar(id, images.get(0)));
+    }
+
+    /**
+     * Submits pet photos that are already stored elsewhere, such as direct uploads. Access is not
+     * checked here, callers verify it beforehand; {@code cleanup} runs once the job has finished.
+     */
+    public ImageJob submitPetPhotos(Long id, List<ImageSource> images, Runnable cleanup) {
+        return submit(images, cleanup, sources -> fileStoreService.storePetPhotos(id, sources));
+    }
+
+    public ImageJob getJob(UUID id) {
+        Job job = jobs.get(id);
+        if (job == null || !job.ownerId.equals(authVerifyService.getIdFromSubject())) {
+            throw new ImageJobNotFoundException("Image job not found");
+        }
+        return job.toResponse();
+    }
+
+    private ImageJob submitStaged(List<StagedImage> stagedImages, Function<List<ImageSource>, List<String>> store) {
+        try {
+            return submit(stagedImages.stream().map(StagedImage::source).toList(),
+                    () -> deleteStaged(stagedImages), store);
+        } catch (ImageJobsQueueFullException e) {
+            deleteStaged(stagedImages);
+            throw e;
+        }
+    }
+
+    private ImageJob submit(List<ImageSource> images,
+                            Runnable cleanup,
+                            Function<List<ImageSource>, List<String>> store) {
+        removeExpiredJobs();
+        Job job = new Job(UUID.randomUUID(), authVerifyService.getIdFromSubject());
+        jobs.put(job.id, job);
+        try {
+            imageJobExecutor.execute(() -> process(job, images, cleanup, store));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.id);
+            throw new ImageJobsQueueFullException("Too many images are being processed, try again later");
+        }
+        return job.toResponse();
+    }
+
+    private void process(Job job,
+                         List<ImageSource> images,
+                         Runnable cleanup,
+                         Function<List<ImageSource>, List<String>> store) {
+        job.state = PROCESSING;
+        try {
+            job.urls = store.apply(images);
+            job.state = COMPLETED;
+        } catch (RuntimeException e) {
+            log.warn("Image job {} failed", job.id, e);
+            job.error = e.getMessage();
+            job.state = FAILED;
+        } finally {
+            job.finishedAt = Instant.now();
+            try {
+                cleanup.run();
+            } catch (RuntimeException e) {
+                log.warn("Could not clean up after image job {}", job.id, e);
+            }
+        }
+    }
+
+    private List<StagedImage> stage(List<MultipartFile> images) {
+        List<StagedImage> stagedImages = new ArrayList<>(images.size());
+        try {
+            for (MultipartFile image : images) {
+                Path path = Files.createTempFile(Path.of(STAGING_DIR), "image-", ".upload");
+                stagedImages.add(new StagedImage(path, new ImageSource(
+                        new FileSystemResource(path), image.getContentType(), image.getOriginalFilename())));
+                image.transferTo(path);
+            }
+            return stagedImages;
+        } catch (IOException e) {
+            deleteStaged(stagedImages);
+            throw new FailedToUploadFileException(e.getMessage());
+        }
+    }
+
+    private void deleteStaged(List<StagedImage> stagedImages) {
+        for (StagedImage stagedImage : stagedImages) {
+            try {
+                Files.deleteIfExists(stagedImage.path());
+            } catch (IOException e) {
+                log.warn("Could not delete staged image {}", stagedImage.path(), e);
+            }
+        }
+    }
+
+    @Scheduled(initialDelayString = "${filestore.jobs.cleanup-interval}",
+            fixedDelayString = "${filestore.jobs.cleanup-interval}")
+    public void removeExpiredJobs() {
+        Instant expired = Instant.now().minus(JOB_RETENTION);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(expired));
+    }
+
+    private void validateFile(MultipartFile image) {
+        isFileEmpty(image);
+        isImage(image);
+    }
+
+    private record StagedImage(Path path, ImageSource source) {
+    }
+
+    private static final class Job {
+        private final UUID id;
+        private final Long ownerId;
+        private volatile ImageJobState state = PENDING;
+        private volatile List<String> urls;
+        private volatile String error;
+        private volatile Instant finishedAt;
+
+        private Job(UUID id, Long ownerId) {
+            this.id = id;
+            this.ownerId = ownerId;
+        }
+
+        private ImageJob toResponse() {
+            return new ImageJob(id, state, urls, error);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.sniff.filestore.service;
+
+import com.sniff.filestore.enums.FileStoreOperation;
+import com.sniff.filestore.enums.ImageVariant;
+import com.sniff.filestore.repository.StoredObjectRepository;
+import com.sniff.filestore.storage.ObjectStorage;
+import com.sniff.filestore.storage.ObjectSummary;
+import com.sniff.pet.repository.PetRepository;
+import com.sniff.user.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Deletes stored images that no pet photo or user avatar points at anymore, such as objects
+ * whose delete failed after commit or uploads whose transaction never completed, along with
+ * direct uploads that were never completed. Objects newer than the grace period are skipped,
+ * so uploads that are still being attached are left alone. Objects with a positive reference
+ * count are kept as well, since a reference is taken before the image is attached to its entity,
+ * for example while pet photos are uploaded or an image job waits in the queue.
+ * <p>
+ * References are matched by storage key rather than by URL, so images stay referenced when the
+ * public URL changes, such as a new local port or a move between storage backends.
+ */
+@Component
+public class StorageSweeper {
+    private static final Logger log = LoggerFactory.getLogger(StorageSweeper.class);
+    private static final int PAGE_SIZE = 1000;
+
+    private final ObjectStorage objectStorage;
+    private final PetRepository petRepository;
+    private final UserRepository userRepository;
+    private final StoredObjectRepository storedObjectRepository;
+    private final Duration gracePeriod;
+
+    public StorageSweeper(ObjectStorage objectStorage,
+                          PetRepository petRepository,
+                          UserRepository userRepository,
+                          StoredObjectRepository storedObjectRepository,
+                          @Value("${filestore.sweeper.grace-period}") Duration gracePeriod) {
+        this.objectStorage = objectStorage;
+        this.petRepository = petRepository;
+        this.userRepository = userRepository;
+        this.storedObjectRepository = storedObjectRepository;
+        this.gracePeriod = gracePeriod;
+    }
+
+    /**
+     * Walks the storage page by page and deletes the orphans of each page in one batch.
+     * Returns the number of deleted objects.
+     */
+    @Scheduled(initialDelayString = "${filestore.sweeper.interval}", fixedDelayString = "${filestore.sweeper.interval}")
+    public int sweep() {
+        Instant cutoff = Instant.now().minus(gracePeriod);
+        int deleted = 0;
+        for (FileStoreOperation operation : FileStoreOperation.values()) {
+            String prefix = operation.name().toLowerCase() + "/";
+            String startAfter = null;
+            List<ObjectSummary> page;
+            do {
+                page = objectStorage.list(prefix, startAfter, PAGE_SIZE);
+                if (!page.isEmpty()) {
+                    deleted += sweepPage(page, cutoff);
+                    startAfter = page.get(page.size() - 1).key();
+                }
+            } while (page.size() == PAGE_SIZE);
+        }
+        deleted += sweepAbandonedUploads(cutoff);
+        if (deleted > 0) {
+            log.info("Swept {} unreferenced stored objects", deleted);
+        }
+        return deleted;
+    }
+
+    private int sweepAbandonedUploads(Instant cutoff) {
+        int deleted = 0;
+        String startAfter = null;
+        List<ObjectSummary> page;
+        do {
+            page = objectStorage.list(DirectUploadService.UPLOADS_FOLDER, startAfter, PAGE_SIZE);
+            List<String> abandoned = page.stream()
+                    .filter(summary -> summary.lastModified().isBefore(cutoff))
+                    .map(ObjectSummary::key)
+                    .toList();
+            if (!abandoned.isEmpty()) {
+                objectStorage.deleteAll(abandoned);
+                deleted += abandoned.size();
+            }
+            if (!page.isEmpty()) {
+                startAfter = page.get(page.size() - 1).key();
+            }
+        } while (page.size() == PAGE_SIZE);
+        return deleted;
+    }
+
+    private int sweepPage(List<ObjectSummary> page, Instant cutoff) {
+        List<ObjectSummary> candidates = page.stream()
+                .filter(summary -> summary.lastModified().isBefore(cutoff))
+                .toList();
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+        Set<String> fullKeys = candidates.stream()
+                .map(summary -> ImageVariant.fullKey(summary.key()))
+                .collect(Collectors.toSet());
+        Set<String> referenced = findAttachedKeys(fullKeys);
+        referenced.addAll(storedObjectRepository.findReferencedKeys(fullKeys));
+
+        List<String> orphans = candidates.stream()
+                .map(ObjectSummary::key)
+                .filter(key -> !referenced.contains(ImageVariant.fullKey(key)))
+                .toList();
+        if (orphans.isEmpty()) {
+            return 0;
+        }
+        objectStorage.deleteAll(orphans);
+        storedObjectRepository.deleteAllUnreferenced(orphans.stream()
+                .map(ImageVariant::fullKey)
+                .distinct()
+                .toList());
+        return orphans.size();
+    }
+
+    /**
+     * Looks the keys up by the URL suffix they are stored under, one query per suffix length,
+     * and maps the URLs found back to keys.
+     */
+    private Set<String> findAttachedKeys(Set<String> keys) {
+        Map<Integer, List<String>> suffixesByLength = keys.stream()
+                .map(key -> "/" + key)
+                .collect(Collectors.groupingBy(String::length));
+        Set<String> referenced = new HashSet<>();
+        suffixesByLength.forEach((length, suffixes) -> {
+            petRepository.findPhotosEndingIn(length, suffixes).forEach(url -> referenced.add(objectStorage.getKey(url)));
+            userRepository.findAvatarsEndingIn(length, suffixes).forEach(url -> referenced.add(objectStorage.getKey(url)));
+        });
+        return referenced;
+    }
+}
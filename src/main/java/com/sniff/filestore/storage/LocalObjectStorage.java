@@ -0,0 +1,228 @@
+package com.sniff.filestore.storage;
+
+import com.sniff.filestore.upload.UploadBuffer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Keeps the images on the local disk for development, integration tests and offline benchmarks.
+ * Objects are written through a {@link FileChannel} straight from the upload buffer into a
+ * temporary file that is then moved into place, so readers never see a partially written image.
+ */
+@Component
+@Profile("local-storage")
+public class LocalObjectStorage implements ObjectStorage {
+    private static final String SIGNATURE_ALGORITHM = "HmacSHA256";
+
+    private final Path root;
+    private final String baseUrl;
+    private final String basePath;
+    private final SecretKeySpec signingKey;
+
+    public LocalObjectStorage(@Value("${filestore.local.root}") Path root,
+                              @Value("${filestore.local.base-url}") String baseUrl) {
+        this.root = root.toAbsolutePath().normalize();
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
+        this.basePath = URI.create(this.baseUrl).getPath();
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.signingKey = new SecretKeySpec(secret, SIGNATURE_ALGORITHM);
+    }
+
+    @PostConstruct
+    public void createRoot() throws IOException {
+        Files.createDirectories(root);
+    }
+
+    @Override
+    public void put(String key, UploadBuffer content, String contentType) throws IOException {
+        write(key, channel -> {
+            ByteBuffer bytes = content.toByteBuffer();
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        });
+    }
+
+    /**
+     * Stores an object streamed from a client, used for uploads through presigned URLs.
+     */
+    public void put(String key, InputStream content) throws IOException {
+        write(key, channel -> {
+            ReadableByteChannel input = Channels.newChannel(content);
+            long position = 0;
+            for (long transferred; (transferred = channel.transferFrom(input, position, Long.MAX_VALUE)) > 0; ) {
+                position += transferred;
+            }
+        });
+    }
+
+    @Override
+    public InputStream get(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    @Override
+    public InputStream get(String key, long length) throws IOException {
+        try (InputStream content = Files.newInputStream(resolve(key))) {
+            return new ByteArrayInputStream(content.readNBytes((int) Math.min(length, Integer.MAX_VALUE)));
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.isRegularFile(resolve(key));
+    }
+
+    @Override
+    public Optional<ObjectSummary> head(String key) {
+        Path file = resolve(key);
+        return Files.isRegularFile(file) ? Optional.of(toSummary(file)) : Optional.empty();
+    }
+
+    @Override
+    public void delete(String key) {
+        try {
+            Files.deleteIfExists(resolve(key));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void deleteAll(Collection<String> keys) {
+        keys.forEach(this::delete);
+    }
+
+    @Override
+    public List<ObjectSummary> list(String prefix, String startAfter, int limit) {
+        Path directory = resolve(prefix);
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files
+                    .filter(Files::isRegularFile)
+                    .filter(file -> !file.getFileName().toString().endsWith(".tmp"))
+                    .map(this::toSummary)
+                    .filter(summary -> startAfter == null || summary.key().compareTo(startAfter) > 0)
+                    .sorted((first, second) -> first.key().compareTo(second.key()))
+                    .limit(limit)
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Signs the key, content type and expiry with a key generated on startup, so the URLs are only
+     * valid until the application restarts, which is enough for development.
+     */
+    @Override
+    public String presignPut(String key, String contentType, Instant expiresAt) {
+        long expires = expiresAt.getEpochSecond();
+        return String.format("%s%s?expires=%d&signature=%s", baseUrl, key, expires, sign(key, contentType, expires));
+    }
+
+    public boolean isValidSignature(String key, String contentType, long expires, String signature) {
+        return Instant.now().getEpochSecond() < expires && MessageDigest.isEqual(
+                sign(key, contentType, expires).getBytes(StandardCharsets.US_ASCII),
+                signature.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Override
+    public String getUrl(String key) {
+        return baseUrl + key;
+    }
+
+    @Override
+    public String getKey(String url) {
+        if (url.startsWith(baseUrl)) {
+            return url.substring(baseUrl.length());
+        }
+        String path = URI.create(url).getPath();
+        return path.startsWith(basePath) ? path.substring(basePath.length()) : path.substring(1);
+    }
+
+    private ObjectSummary toSummary(Path file) {
+        try {
+            String key = root.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+            return new ObjectSummary(key, Files.size(file), Files.getLastModifiedTime(file).toInstant());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void write(String key, ChannelWriter writer) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        Path temporary = target.resolveSibling(target.getFileName() + "." + System.nanoTime() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, CREATE_NEW, WRITE)) {
+            writer.write(channel);
+        } catch (IOException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        Files.move(temporary, target, ATOMIC_MOVE, REPLACE_EXISTING);
+    }
+
+    private String sign(String key, String contentType, long expires) {
+        try {
+            Mac mac = Mac.getInstance(SIGNATURE_ALGORITHM);
+            mac.init(signingKey);
+            byte[] signature = mac.doFinal(String.join("\n", key, String.valueOf(contentType), String.valueOf(expires))
+                    .getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Resolves the key under the root, rejecting keys that would escape it.
+     */
+    public Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root) || path.equals(root)) {
+            throw new IllegalArgumentException("Invalid object key: " + key);
+        }
+        return path;
+    }
+
+    @FunctionalInterface
+    private interface ChannelWriter {
+        void write(FileChannel channel) throws IOException;
+    }
+}
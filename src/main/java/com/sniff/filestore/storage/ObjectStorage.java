@@ -0,0 +1,48 @@
+package com.sniff.filestore.storage;
+
+import com.sniff.filestore.upload.UploadBuffer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Backend that keeps the stored images. Keys are relative paths such as {@code pet/<name>.jpg},
+ * and every backend maps them to the public URLs saved on users and pets and back.
+ */
+public interface ObjectStorage {
+    void put(String key, UploadBuffer content, String contentType) throws IOException;
+
+    InputStream get(String key) throws IOException;
+
+    /**
+     * Reads at most the first {@code length} bytes of the object.
+     */
+    InputStream get(String key, long length) throws IOException;
+
+    boolean exists(String key);
+
+    Optional<ObjectSummary> head(String key);
+
+    void delete(String key);
+
+    void deleteAll(Collection<String> keys);
+
+    /**
+     * Lists up to {@code limit} objects under the prefix in key order, starting after the given key.
+     */
+    List<ObjectSummary> list(String prefix, String startAfter, int limit);
+
+    /**
+     * Creates a URL that lets a client upload the object with a plain {@code PUT} until it expires.
+     * The client has to send the same {@code Content-Type} the URL was signed for.
+     */
+    String presignPut(String key, String contentType, Instant expiresAt);
+
+    String getUrl(String key);
+
+    String getKey(String url);
+}
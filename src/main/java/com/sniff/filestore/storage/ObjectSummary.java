@@ -0,0 +1,6 @@
+package com.sniff.filestore.storage;
+
+import java.time.Instant;
+
+public record ObjectSummary(String key, long size, Instant lastModified) {
+}
@@ -0,0 +1,136 @@
+package com.sniff.filestore.storage;
+
+import com.amazonaws.HttpMethod;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.GeneratePresignedUrlRequest;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.ListObjectsV2Request;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.sniff.filestore.upload.S3Uploader;
+import com.sniff.filestore.upload.UploadBuffer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Default backend, keeps the images in the configured S3 bucket. Batch deletes are sent
+ * as multi-object delete requests of up to {@value #MAX_KEYS_PER_DELETE} keys each.
+ */
+@Component
+@Profile("!local-storage")
+public class S3ObjectStorage implements ObjectStorage {
+    private static final int MAX_KEYS_PER_DELETE = 1000;
+    private static final String HOST_SUFFIX = ".s3.amazonaws.com/";
+
+    private final AmazonS3 s3;
+    private final S3Uploader s3Uploader;
+    private final String bucketName;
+
+    public S3ObjectStorage(AmazonS3 s3,
+                           S3Uploader s3Uploader,
+                           @Value("${aws.bucket.name}") String bucketName) {
+        this.s3 = s3;
+        this.s3Uploader = s3Uploader;
+        this.bucketName = bucketName;
+    }
+
+    @Override
+    public void put(String key, UploadBuffer content, String contentType) {
+        s3Uploader.upload(bucketName, key, content, contentType);
+    }
+
+    @Override
+    public InputStream get(String key) {
+        return s3.getObject(bucketName, key).getObjectContent();
+    }
+
+    /**
+     * Sends a ranged GET, so only the requested bytes leave the bucket.
+     */
+    @Override
+    public InputStream get(String key, long length) {
+        return s3.getObject(new GetObjectRequest(bucketName, key).withRange(0, length - 1)).getObjectContent();
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return s3.doesObjectExist(bucketName, key);
+    }
+
+    @Override
+    public Optional<ObjectSummary> head(String key) {
+        try {
+            ObjectMetadata metadata = s3.getObjectMetadata(bucketName, key);
+            return Optional.of(new ObjectSummary(key, metadata.getContentLength(), metadata.getLastModified().toInstant()));
+        } catch (AmazonS3Exception e) {
+            if (e.getStatusCode() == 404) {
+                return Optional.empty();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        s3.deleteObject(bucketName, key);
+    }
+
+    @Override
+    public void deleteAll(Collection<String> keys) {
+        List<DeleteObjectsRequest.KeyVersion> batch = new ArrayList<>();
+        for (String key : keys) {
+            batch.add(new DeleteObjectsRequest.KeyVersion(key));
+            if (batch.size() == MAX_KEYS_PER_DELETE) {
+                deleteBatch(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            deleteBatch(batch);
+        }
+    }
+
+    @Override
+    public List<ObjectSummary> list(String prefix, String startAfter, int limit) {
+        ListObjectsV2Request request = new ListObjectsV2Request()
+                .withBucketName(bucketName)
+                .withPrefix(prefix)
+                .withStartAfter(startAfter)
+                .withMaxKeys(limit);
+        return s3.listObjectsV2(request).getObjectSummaries().stream()
+                .map(summary -> new ObjectSummary(summary.getKey(), summary.getSize(), summary.getLastModified().toInstant()))
+                .toList();
+    }
+
+    @Override
+    public String presignPut(String key, String contentType, Instant expiresAt) {
+        GeneratePresignedUrlRequest request = new GeneratePresignedUrlRequest(bucketName, key, HttpMethod.PUT)
+                .withContentType(contentType)
+                .withExpiration(Date.from(expiresAt));
+        return s3.generatePresignedUrl(request).toString();
+    }
+
+    @Override
+    public String getUrl(String key) {
+        return String.format("https://%s%s%s", bucketName, HOST_SUFFIX, key);
+    }
+
+    @Override
+    public String getKey(String url) {
+        return url.substring(url.indexOf(HOST_SUFFIX) + HOST_SUFFIX.length());
+    }
+
+    private void deleteBatch(List<DeleteObjectsRequest.KeyVersion> keys) {
+        s3.deleteObjects(new DeleteObjectsRequest(bucketName).withKeys(keys).withQuiet(true));
+    }
+}
@@ -0,0 +1,13 @@
+package com.sniff.filestore.upload;
+
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * An image to be compressed and stored, either straight from the request or from the staging area.
+ */
+public record ImageSource(InputStreamSource content, String contentType, String originalFilename) {
+    public static ImageSource of(MultipartFile file) {
+        return new ImageSource(file, file.getContentType(), file.getOriginalFilename());
+    }
+}
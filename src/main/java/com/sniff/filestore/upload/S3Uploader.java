@@ -0,0 +1,28 @@
+package com.sniff.filestore.upload;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Streams an {@link UploadBuffer} to S3 with its exact length. Uploaded images are capped by
+ * {@code spring.servlet.multipart.max-file-size}, the minimum size of a multipart upload part,
+ * so every object goes up in a single request.
+ */
+@Component
+@Profile("!local-storage")
+public class S3Uploader {
+    private final AmazonS3 s3;
+
+    public S3Uploader(AmazonS3 s3) {
+        this.s3 = s3;
+    }
+
+    public void upload(String bucketName, String key, UploadBuffer buffer, String contentType) {
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentType(contentType);
+        metadata.setContentLength(buffer.size());
+        s3.putObject(bucketName, key, buffer.toInputStream(), metadata);
+    }
+}
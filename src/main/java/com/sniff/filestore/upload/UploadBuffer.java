@@ -0,0 +1,44 @@
+package com.sniff.filestore.upload;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Growable in-memory buffer for an encoded image. Unlike {@link ByteArrayOutputStream#toByteArray()}
+ * the content is read back through streams over the backing array, so it is never copied.
+ */
+public class UploadBuffer extends ByteArrayOutputStream {
+    public UploadBuffer(int initialSize) {
+        super(initialSize);
+    }
+
+    public InputStream toInputStream() {
+        return new ByteArrayInputStream(buf, 0, count);
+    }
+
+    public ByteBuffer toByteBuffer() {
+        return ByteBuffer.wrap(buf, 0, count);
+    }
+
+    /**
+     * Hex encoded SHA-256 of the content, used as the content-addressed name of the object.
+     */
+    public String sha256() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(buf, 0, count);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public int capacity() {
+        return buf.length;
+    }
+}
@@ -0,0 +1,44 @@
+package com.sniff.filestore.upload;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Keeps a bounded number of upload buffers for reuse. Buffers that grew past the retained
+ * size are dropped on release, so the pool never pins more than {@code poolSize * maxRetainedSize}.
+ */
+@Component
+public class UploadBufferPool {
+    private final BlockingQueue<UploadBuffer> buffers;
+    private final int initialSize;
+    private final long maxRetainedSize;
+
+    public UploadBufferPool(@Value("${filestore.buffer.pool-size}") int poolSize,
+                            @Value("${filestore.buffer.initial-size}") DataSize initialSize,
+                            @Value("${filestore.buffer.max-retained-size}") DataSize maxRetainedSize) {
+        this.buffers = new ArrayBlockingQueue<>(poolSize);
+        this.initialSize = (int) initialSize.toBytes();
+        this.maxRetainedSize = maxRetainedSize.toBytes();
+    }
+
+    /**
+     * Takes a pooled buffer or allocates a new one when the pool is empty. Allocation is not
+     * limited here: every caller holds one buffer at a time, and callers are bounded by the
+     * upload and image job executors and the request threads, so that is the bound on buffers.
+     */
+    public UploadBuffer acquire() {
+        UploadBuffer buffer = buffers.poll();
+        return buffer != null ? buffer : new UploadBuffer(initialSize);
+    }
+
+    public void release(UploadBuffer buffer) {
+        if (buffer.capacity() <= maxRetainedSize) {
+            buffer.reset();
+            buffers.offer(buffer);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.sniff.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the claims of verified tokens until their {@code exp}, so a client that sends the same
+ * bearer token on every request pays for the signature check only once. Entries are keyed by the
+ * SHA-256 of the token, which keeps the tokens themselves out of the heap. The cache is a Caffeine
+ * cache, so concurrent requests never wait on a shared lock; once it is full, the entries least
+ * likely to be requested again are dropped. Rejected tokens are never cached.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+    private static final Logger log = LoggerFactory.getLogger(CachingJwtDecoder.class);
+
+    private final JwtDecoder delegate;
+    private final Clock clock;
+    private final Cache<String, Jwt> cache;
+
+    public CachingJwtDecoder(JwtDecoder delegate, int maxSize, Clock clock) {
+        this.delegate = delegate;
+        this.clock = clock;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilExpiresAt())
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.instant().toEpochMilli()))
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        String key = sha256(token);
+        Jwt jwt = cache.getIfPresent(key);
+        if (jwt != null && isLive(jwt, clock.instant())) {
+            return jwt;
+        }
+        jwt = delegate.decode(token);
+        if (jwt.getExpiresAt() != null) {
+            cache.put(key, jwt);
+        }
+        return jwt;
+    }
+
+    /**
+     * Drops expired tokens that are no longer requested and logs the hit rate since startup.
+     */
+    @Scheduled(initialDelayString = "${jwt.cache.cleanup-interval}", fixedDelayString = "${jwt.cache.cleanup-interval}")
+    public void evictExpired() {
+        cache.cleanUp();
+        CacheStats stats = cache.stats();
+        log.info("Token cache: {} entries, {} hits, {} misses, hit rate {}",
+                cache.estimatedSize(), stats.hitCount(), stats.missCount(), String.format("%.3f", stats.hitRate()));
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    private static boolean isLive(Jwt jwt, Instant now) {
+        return now.isBefore(jwt.getExpiresAt());
+    }
+
+    private static String sha256(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Expires every entry at the {@code exp} of its token.
+     */
+    private class UntilExpiresAt implements Expiry<String, Jwt> {
+        @Override
+        public long expireAfterCreate(String key, Jwt jwt, long currentTime) {
+            Duration untilExpiry = Duration.between(clock.instant(), jwt.getExpiresAt());
+            if (untilExpiry.isNegative()) {
+                return 0;
+            }
+            return untilExpiry.getSeconds() < Long.MAX_VALUE / 1_000_000_000 ? untilExpiry.toNanos() : Long.MAX_VALUE;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Jwt jwt, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, jwt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Jwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,41 +1,104 @@
 package com.sniff.jwt;
 
 import com.nimbusds.jose.jwk.JWKSet;
-import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.jwt.JwtClaimNames;
+import org.springframework.security.oauth2.jwt.JwtClaimValidator;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtTimestampValidator;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+import org.springframework.util.StringUtils;
 
-import java.security.KeyPair;
-import java.security.KeyPairGenerator;
-import java.security.NoSuchAlgorithmException;
-import java.security.interfaces.RSAPublicKey;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
 
 @Configuration
 public class JwtConfig {
+    private static final Logger log = LoggerFactory.getLogger(JwtConfig.class);
+
+    @Value("${jwt.cache.max-size}")
+    private int TOKEN_CACHE_MAX_SIZE;
+    @Value("${jwt.keystore.location}")
+    private String KEYSTORE_LOCATION;
+    @Value("${jwt.keystore.type}")
+    private String KEYSTORE_TYPE;
+    @Value("${jwt.keystore.password}")
+    private String KEYSTORE_PASSWORD;
+    @Value("${jwt.keystore.signing-key}")
+    private String SIGNING_KEY_ID;
+    @Value("${jwt.keystore.allow-temporary-key}")
+    private boolean ALLOW_TEMPORARY_KEY;
+    @Value("${jwt.algorithm}")
+    private String ALGORITHM;
+
+    /**
+     * Loads the token keys from the configured key store, so every node signs with the same key
+     * and tokens survive a restart. Without a key store a temporary key is generated where
+     * {@code jwt.keystore.allow-temporary-key} permits it, as in the dev profile, and startup
+     * fails everywhere else.
+     */
     @Bean
-    public KeyPair keyPair() throws NoSuchAlgorithmException {
-        var keyPairGenerator = KeyPairGenerator.getInstance("RSA");
-        keyPairGenerator.initialize(2048);
-        return keyPairGenerator.generateKeyPair();
+    public JwtKeys jwtKeys(ResourceLoader resourceLoader) throws GeneralSecurityException, IOException {
+        if (!StringUtils.hasText(KEYSTORE_LOCATION)) {
+            if (!ALLOW_TEMPORARY_KEY) {
+                throw new IllegalStateException("jwt.keystore.location is required, " +
+                        "set JWT_KEYSTORE to the key store tokens are signed with");
+            }
+            log.warn("No jwt.keystore.location configured, tokens are signed with a temporary key");
+            return JwtKeys.generate(ALGORITHM);
+        }
+        char[] password = KEYSTORE_PASSWORD.toCharArray();
+        KeyStore keyStore = KeyStore.getInstance(KEYSTORE_TYPE);
+        try (InputStream in = resourceLoader.getResource(KEYSTORE_LOCATION).getInputStream()) {
+            keyStore.load(in, password);
+        }
+        return JwtKeys.load(keyStore, password, SIGNING_KEY_ID, ALGORITHM);
     }
 
+    /**
+     * The only place tokens are verified: the resource server decodes each bearer token once and
+     * rejects it unless it has a subject and an expiry that has not passed, without any clock skew.
+     * Verified tokens are cached until they expire, so repeated requests skip the signature check.
+     */
     @Bean
-    JwtDecoder jwtDecoder(KeyPair keyPair) {
-        return NimbusJwtDecoder.withPublicKey((RSAPublicKey) keyPair.getPublic()).build();
+    JwtDecoder jwtDecoder(JwtKeys jwtKeys) {
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new KeyIdJwsKeySelector(jwtKeys));
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        NimbusJwtDecoder jwtDecoder = new NimbusJwtDecoder(jwtProcessor);
+        jwtDecoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(
+                new JwtTimestampValidator(Duration.ZERO),
+                new JwtClaimValidator<Instant>(JwtClaimNames.EXP, Objects::nonNull),
+                new JwtClaimValidator<String>(JwtClaimNames.SUB, StringUtils::hasText)));
+        return new CachingJwtDecoder(jwtDecoder, TOKEN_CACHE_MAX_SIZE, Clock.systemUTC());
     }
 
+    /**
+     * Signs with the signing key only; its {@code kid} goes into the token header.
+     */
     @Bean
-    JwtEncoder jwtEncoder(KeyPair keyPair) {
-        var jwk = new RSAKey.Builder((RSAPublicKey) keyPair.getPublic()).privateKey(keyPair.getPrivate()).build();
-        var jwkSet = new ImmutableJWKSet<>(new JWKSet(jwk));
-        return new NimbusJwtEncoder(jwkSet);
+    JwtEncoder jwtEncoder(JwtKeys jwtKeys) {
+        return new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(jwtKeys.signingKey())));
     }
 
     @Bean
@@ -2,8 +2,9 @@ package com.sniff.jwt;
 
 public class JwtConstants {
     public static final String BEARER_PREFIX = "Bearer ";
-    public static final long EXPIRATION_TIME = 60; // 60 minutes
+    public static final long EXPIRATION_TIME = 15; // 15 minutes, sessions are renewed with refresh tokens
     public static final String INVALID_TOKEN_MESSAGE = "Invalid token";
+    public static final String INVALID_REFRESH_TOKEN_MESSAGE = "Invalid refresh token";
     public static final String ACCESS_DENIED_MESSAGE = "You do not have permission to access this page";
     public static final String FORBIDDEN_MESSAGE = "You need to sign in to access this page";
     public static final String TOKEN_ISSUER = "Sniff";
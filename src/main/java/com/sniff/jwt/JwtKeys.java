@@ -0,0 +1,164 @@
+package com.sniff.jwt;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+
+import java.security.KeyStore;
+import java.security.KeyStoreException;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.UnrecoverableKeyException;
+import java.security.cert.Certificate;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The keys tokens are signed and verified with. Every key is identified by its {@code kid}, the
+ * key store alias it was loaded from: the signing key issues new tokens, and every key in the set,
+ * including certificates without a private key, keeps verifying the tokens it issued. A key is
+ * rotated by adding the new one on every node, switching the signing key, and removing the old
+ * one once the tokens it signed have expired.
+ * <p>
+ * Tokens are signed with RS256 by RSA keys or ES256 by P-256 keys. Each key verifies only the
+ * algorithm of its own type, so switching the algorithm is a key rotation like any other.
+ */
+public class JwtKeys {
+    private final JWKSet keys;
+    private final JWK signingKey;
+    private final SignatureAlgorithm algorithm;
+
+    private JwtKeys(JWKSet keys, JWK signingKey, SignatureAlgorithm algorithm) {
+        this.keys = keys;
+        this.signingKey = signingKey;
+        this.algorithm = algorithm;
+    }
+
+    public static JwtKeys load(KeyStore keyStore,
+                               char[] password,
+                               String signingKeyId,
+                               String algorithmName) throws KeyStoreException {
+        SignatureAlgorithm algorithm = signatureAlgorithm(algorithmName);
+        JWKSet keys = new JWKSet(readKeys(keyStore, password));
+        if (keys.getKeys().isEmpty()) {
+            throw new IllegalStateException("Token key store contains no keys");
+        }
+        JWK signingKey = keys.getKeyByKeyId(signingKeyId);
+        if (signingKey == null || !signingKey.isPrivate()) {
+            throw new IllegalStateException("Token key store has no private key '" + signingKeyId + "'");
+        }
+        if (!JWSAlgorithm.parse(algorithm.getName()).equals(algorithm(signingKey))) {
+            throw new IllegalStateException("Signing key '" + signingKeyId + "' cannot sign " + algorithm.getName());
+        }
+        return new JwtKeys(keys, signingKey, algorithm);
+    }
+
+    /**
+     * A single key that lives as long as the process, for development and tests.
+     */
+    public static JwtKeys generate(String algorithmName) {
+        SignatureAlgorithm algorithm = signatureAlgorithm(algorithmName);
+        String keyId = UUID.randomUUID().toString();
+        try {
+            JWK key = algorithm == SignatureAlgorithm.ES256
+                    ? new ECKeyGenerator(Curve.P_256).keyUse(KeyUse.SIGNATURE).keyID(keyId).generate()
+                    : new RSAKeyGenerator(2048).keyUse(KeyUse.SIGNATURE).keyID(keyId).generate();
+            return new JwtKeys(new JWKSet(key), key, algorithm);
+        } catch (JOSEException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The algorithm of tokens signed by the given key, or {@code null} for keys that sign none.
+     */
+    public static JWSAlgorithm algorithm(JWK key) {
+        if (key instanceof RSAKey) {
+            return JWSAlgorithm.RS256;
+        }
+        if (key instanceof ECKey ecKey && Curve.P_256.equals(ecKey.getCurve())) {
+            return JWSAlgorithm.ES256;
+        }
+        return null;
+    }
+
+    public JWK signingKey() {
+        return signingKey;
+    }
+
+    public SignatureAlgorithm signingAlgorithm() {
+        return algorithm;
+    }
+
+    public JWK key(String keyId) {
+        return keys.getKeyByKeyId(keyId);
+    }
+
+    /**
+     * The public halves of all keys, as published on the JWKS endpoint.
+     */
+    public JWKSet publicKeys() {
+        return keys.toPublicJWKSet();
+    }
+
+    /**
+     * Reads every RSA and P-256 entry of the key store by hand, since the Nimbus key store loader
+     * needs BouncyCastle for EC keys.
+     */
+    private static List<JWK> readKeys(KeyStore keyStore, char[] password) throws KeyStoreException {
+        List<JWK> keys = new ArrayList<>();
+        for (String alias : Collections.list(keyStore.aliases())) {
+            Certificate certificate = keyStore.getCertificate(alias);
+            if (certificate == null) {
+                continue;
+            }
+            JWK key;
+            if (certificate.getPublicKey() instanceof RSAPublicKey publicKey) {
+                RSAKey.Builder builder = new RSAKey.Builder(publicKey).keyUse(KeyUse.SIGNATURE).keyID(alias);
+                if (keyStore.isKeyEntry(alias)) {
+                    builder.privateKey(privateKey(keyStore, alias, password));
+                }
+                key = builder.build();
+            } else if (certificate.getPublicKey() instanceof ECPublicKey publicKey
+                    && Curve.P_256.equals(Curve.forECParameterSpec(publicKey.getParams()))) {
+                ECKey.Builder builder = new ECKey.Builder(Curve.P_256, publicKey).keyUse(KeyUse.SIGNATURE).keyID(alias);
+                if (keyStore.isKeyEntry(alias)) {
+                    builder.privateKey(privateKey(keyStore, alias, password));
+                }
+                key = builder.build();
+            } else {
+                continue;
+            }
+            keys.add(key);
+        }
+        return keys;
+    }
+
+    private static PrivateKey privateKey(KeyStore keyStore, String alias, char[] password) throws KeyStoreException {
+        try {
+            return (PrivateKey) keyStore.getKey(alias, password);
+        } catch (NoSuchAlgorithmException | UnrecoverableKeyException e) {
+            throw new IllegalStateException("Failed to read private key '" + alias + "'", e);
+        }
+    }
+
+    private static SignatureAlgorithm signatureAlgorithm(String name) {
+        SignatureAlgorithm algorithm = SignatureAlgorithm.from(name);
+        if (algorithm != SignatureAlgorithm.RS256 && algorithm != SignatureAlgorithm.ES256) {
+            throw new IllegalStateException("Unsupported token signing algorithm '" + name + "', use RS256 or ES256");
+        }
+        return algorithm;
+    }
+}
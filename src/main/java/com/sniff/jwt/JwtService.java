@@ -1,7 +1,6 @@
 package com.sniff.jwt;
 
 import com.sniff.auth.role.Role;
-import io.micrometer.common.util.StringUtils;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.oauth2.jwt.*;
 import org.springframework.stereotype.Service;
@@ -15,7 +14,7 @@ import static java.time.temporal.ChronoUnit.MINUTES;
 @RequiredArgsConstructor
 public class JwtService {
     private final JwtEncoder jwtEncoder;
-    private final JwtDecoder jwtDecoder;
+    private final JwtKeys jwtKeys;
 
     public String generateToken(Long id, String name, Role role) {
         var now = Instant.now();
@@ -27,20 +26,7 @@ public class JwtService {
                 .claim(ROLE_CLAIM, role.name())
                 .claim(NAME_CLAIM, name)
                 .build();
-        return jwtEncoder.encode(JwtEncoderParameters.from(claims)).getTokenValue();
-    }
-
-    public boolean isTokenValid(String token) {
-        try {
-            Jwt jwt = jwtDecoder.decode(token);
-            return StringUtils.isNotEmpty(jwt.getSubject()) && !isTokenExpired(jwt);
-        } catch (BadJwtException ex) {
-            return false;
-        }
-    }
-
-    private boolean isTokenExpired(Jwt jwt){
-        Instant jwtExpiresAt = jwt.getExpiresAt();
-        return jwtExpiresAt == null || Instant.now().isAfter(jwtExpiresAt);
+        var header = JwsHeader.with(jwtKeys.signingAlgorithm()).build();
+        return jwtEncoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
     }
 }
@@ -1,49 +0,0 @@
-package com.sniff.jwt;
-
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.sniff.utils.HttpResponse;
-import jakarta.servlet.FilterChain;
-import jakarta.servlet.ServletException;
-import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.lang.NonNull;
-import lombok.RequiredArgsConstructor;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
-import org.springframework.stereotype.Component;
-import org.springframework.web.filter.OncePerRequestFilter;
-
-import java.io.IOException;
-
-import static com.sniff.jwt.JwtConstants.*;
-
-@Component
-@RequiredArgsConstructor
-public class JwtValidationFilter extends OncePerRequestFilter {
-    private final JwtService jwtService;
-    private final ObjectMapper objectMapper;
-
-    @Override
-    protected void doFilterInternal(
-            HttpServletRequest request,
-            @NonNull HttpServletResponse response,
-            @NonNull FilterChain filterChain
-    ) throws ServletException, IOException {
-        String authorizationHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
-
-        if (authorizationHeader != null && authorizationHeader.startsWith(BEARER_PREFIX)) {
-            String token = authorizationHeader.substring(BEARER_PREFIX.length());
-
-            if(!jwtService.isTokenValid(token)) {
-                response.setStatus(HttpStatus.FORBIDDEN.value());
-                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-                String responseBody = objectMapper.writeValueAsString(new HttpResponse(INVALID_TOKEN_MESSAGE));
-                response.getWriter().write(responseBody);
-                return;
-            }
-        }
-
-        filterChain.doFilter(request, response);
-    }
-}
\ No newline at end of file
@@ -0,0 +1,55 @@
+package com.sniff.jwt;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.AsymmetricJWK;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.proc.JWSKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+
+import java.security.Key;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Picks the verification key by the {@code kid} header of the token. The public key of each
+ * {@code kid} is extracted once and then reused, and tokens without a known {@code kid} or
+ * signed with another algorithm than the one of their key get no key at all.
+ */
+public class KeyIdJwsKeySelector implements JWSKeySelector<SecurityContext> {
+    private final JwtKeys keys;
+    private final Map<String, VerificationKey> keysById = new ConcurrentHashMap<>();
+
+    public KeyIdJwsKeySelector(JwtKeys keys) {
+        this.keys = keys;
+    }
+
+    @Override
+    public List<? extends Key> selectJWSKeys(JWSHeader header, SecurityContext context) throws KeySourceException {
+        String keyId = header.getKeyID();
+        if (keyId == null) {
+            return List.of();
+        }
+        VerificationKey key = keysById.get(keyId);
+        if (key == null) {
+            JWK jwk = keys.key(keyId);
+            JWSAlgorithm algorithm = jwk != null ? JwtKeys.algorithm(jwk) : null;
+            if (algorithm == null) {
+                return List.of();
+            }
+            try {
+                key = new VerificationKey(algorithm, List.of(((AsymmetricJWK) jwk).toPublicKey()));
+            } catch (JOSEException e) {
+                throw new KeySourceException("Failed to read key " + keyId, e);
+            }
+            keysById.put(keyId, key);
+        }
+        return key.algorithm().equals(header.getAlgorithm()) ? key.keys() : List.of();
+    }
+
+    private record VerificationKey(JWSAlgorithm algorithm, List<Key> keys) {
+    }
+}
@@ -0,0 +1,37 @@
+package com.sniff.jwt.handler;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sniff.utils.HttpResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.AuthenticationEntryPoint;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+import static com.sniff.jwt.JwtConstants.INVALID_TOKEN_MESSAGE;
+
+/**
+ * Rejects requests whose bearer token fails decoding or validation in the resource server,
+ * on public endpoints as well as on protected ones.
+ */
+@Component
+@RequiredArgsConstructor
+public class JwtInvalidTokenEntryPoint implements AuthenticationEntryPoint {
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void commence(HttpServletRequest request,
+                         HttpServletResponse response,
+                         AuthenticationException authException) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setStatus(HttpStatus.FORBIDDEN.value());
+
+        String responseBody = objectMapper.writeValueAsString(new HttpResponse(INVALID_TOKEN_MESSAGE));
+        response.getWriter().write(responseBody);
+    }
+}
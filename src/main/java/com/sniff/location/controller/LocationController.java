@@ -1,24 +1,34 @@
 package com.sniff.location.controller;
 
 import com.sniff.location.model.response.Location;
+import com.sniff.location.model.response.SerializedLocations;
 import com.sniff.location.service.LocationService;
+import com.sniff.utils.HttpResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.enums.SecuritySchemeIn;
 import io.swagger.v3.oas.annotations.enums.SecuritySchemeType;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.security.SecurityScheme;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.HttpStatus;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
+import java.time.Duration;
 
 @RestController
 @RequiredArgsConstructor
@@ -31,26 +41,84 @@ import java.util.List;
         type = SecuritySchemeType.HTTP,
         in = SecuritySchemeIn.HEADER
 )
+@Validated
 public class LocationController {
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(Duration.ofDays(1)).cachePublic();
+
     private final LocationService locationService;
 
     @SecurityRequirement(name = "bearerAuth")
     @Operation(summary = "Get all regions")
     @ApiResponse(responseCode = "200",
-            content = { @Content(schema = @Schema(implementation = Location.class)) })
+            content = { @Content(array = @ArraySchema(schema = @Schema(implementation = Location.class))) })
+    @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match")
     @GetMapping("/regions")
-    @ResponseStatus(HttpStatus.OK)
-    public List<Location> getRegions() {
-        return locationService.getRegions();
+    public ResponseEntity<byte[]> getRegions() {
+        return toResponse(locationService.getRegions());
     }
 
     @SecurityRequirement(name = "bearerAuth")
-    @Operation(summary = "Get all cities")
+    @Operation(
+            summary = "Get all cities",
+            description = "With q only the cities whose name starts with q, ignoring case"
+    )
     @ApiResponse(responseCode = "200",
-            content = { @Content(schema = @Schema(implementation = Location.class)) })
+            content = { @Content(array = @ArraySchema(schema = @Schema(implementation = Location.class))) })
+    @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match")
+    @ApiResponse(responseCode = "400", description = "Invalid query params",
+            content = { @Content(schema = @Schema(implementation = HttpResponse.class)) })
     @GetMapping("/cities")
-    @ResponseStatus(HttpStatus.OK)
-    public List<Location> getCities() {
-        return locationService.getCities();
+    public ResponseEntity<byte[]> getCities(
+            @Size(max = 50, message = "Query should not be longer than 50 characters")
+            @RequestParam(required = false)
+            String q,
+            @Positive(message = "Limit should be positive")
+            @Max(value = 50, message = "Limit should not be greater than 50")
+            @RequestParam(defaultValue = "10") int limit) {
+        if (q != null && !q.isBlank()) {
+            return toResponse(locationService.searchCities(q, null, limit));
+        }
+        return toResponse(locationService.getCities());
+    }
+
+    @SecurityRequirement(name = "bearerAuth")
+    @Operation(
+            summary = "Get cities of the region",
+            description = "With q only the cities whose name starts with q, ignoring case"
+    )
+    @ApiResponse(responseCode = "200",
+            content = { @Content(array = @ArraySchema(schema = @Schema(implementation = Location.class))) })
+    @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match")
+    @ApiResponse(responseCode = "400", description = "Invalid query params",
+            content = { @Content(schema = @Schema(implementation = HttpResponse.class)) })
+    @ApiResponse(responseCode = "404", description = "Region not found",
+            content = { @Content(schema = @Schema(implementation = HttpResponse.class)) })
+    @ApiResponse(responseCode = "503", description = "Cities are not assigned to regions yet",
+            content = { @Content(schema = @Schema(implementation = HttpResponse.class)) })
+    @GetMapping("/regions/{id}/cities")
+    public ResponseEntity<byte[]> getRegionCities(
+            @PathVariable Long id,
+            @Size(max = 50, message = "Query should not be longer than 50 characters")
+            @RequestParam(required = false)
+            String q,
+            @Positive(message = "Limit should be positive")
+            @Max(value = 50, message = "Limit should not be greater than 50")
+            @RequestParam(defaultValue = "10") int limit) {
+        if (q != null && !q.isBlank()) {
+            return toResponse(locationService.searchCities(q, id, limit));
+        }
+        return toResponse(locationService.getRegionCities(id));
+    }
+
+    /**
+     * Answers with the cached bytes and their ETag; a matching {@code If-None-Match}
+     * is turned into 304 Not Modified by Spring before the body is written.
+     */
+    private ResponseEntity<byte[]> toResponse(SerializedLocations locations) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(locations.getEtag())
+                .cacheControl(CACHE_CONTROL)
+                .body(locations.getJson());
     }
 }
@@ -0,0 +1,7 @@
+package com.sniff.location.exception;
+
+public class CityRegionsNotSeededException extends RuntimeException {
+    public CityRegionsNotSeededException(String message) {
+        super(message);
+    }
+}
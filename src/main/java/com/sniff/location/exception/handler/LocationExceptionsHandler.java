@@ -1,6 +1,7 @@
 package com.sniff.location.exception.handler;
 
 import com.sniff.location.exception.CityNotFoundException;
+import com.sniff.location.exception.CityRegionsNotSeededException;
 import com.sniff.location.exception.MissingLocationException;
 import com.sniff.location.exception.RegionNotFoundException;
 import com.sniff.utils.HttpResponse;
@@ -25,4 +26,10 @@ public class LocationExceptionsHandler {
     public HttpResponse handlerMissingLocationException(MissingLocationException e) {
         return new HttpResponse(e.getMessage());
     }
+
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ExceptionHandler(CityRegionsNotSeededException.class)
+    public HttpResponse handlerCityRegionsNotSeededException(CityRegionsNotSeededException e) {
+        return new HttpResponse(e.getMessage());
+    }
 }
@@ -7,7 +7,7 @@ import lombok.*;
 import java.util.List;
 
 @Entity(name = "city")
-@Table(name = "city")
+@Table(name = "city", indexes = @Index(name = "idx_city_region_id", columnList = "region_id"))
 @Getter
 @Setter
 @AllArgsConstructor
@@ -21,6 +21,10 @@ public class City {
     @Column(name = "name", length = 50)
     private String name;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "region_id", referencedColumnName = "id")
+    private Region region;
+
     @OneToMany(mappedBy = "city",
             cascade = {CascadeType.PERSIST, CascadeType.MERGE},
             orphanRemoval = true)
@@ -0,0 +1,14 @@
+package com.sniff.location.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A location list serialized once to JSON, together with the ETag of those bytes.
+ */
+@Getter
+@AllArgsConstructor
+public class SerializedLocations {
+    private final byte[] json;
+    private final String etag;
+}
@@ -0,0 +1,56 @@
+package com.sniff.location.service;
+
+import com.sniff.location.model.response.Location;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Immutable index of city names sorted case-insensitively. A prefix lookup is a binary
+ * search for the first matching name followed by a scan over the adjacent matches.
+ */
+final class CityNameIndex {
+    private final String[] keys;
+    private final Location[] cities;
+
+    CityNameIndex(List<Location> cities) {
+        Location[] sorted = cities.stream()
+                .sorted(Comparator.comparing((Location city) -> normalize(city.getName()))
+                        .thenComparing(Location::getId))
+                .toArray(Location[]::new);
+        this.cities = sorted;
+        this.keys = new String[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            keys[i] = normalize(sorted[i].getName());
+        }
+    }
+
+    List<Location> findByPrefix(String prefix, int limit) {
+        String key = normalize(prefix);
+        List<Location> found = new ArrayList<>(Math.min(limit, keys.length));
+        for (int i = lowerBound(key); i < keys.length && found.size() < limit && keys[i].startsWith(key); i++) {
+            found.add(cities[i]);
+        }
+        return found;
+    }
+
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle].compareTo(key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static String normalize(String name) {
+        return name == null ? "" : name.strip().toLowerCase(Locale.ROOT);
+    }
+}
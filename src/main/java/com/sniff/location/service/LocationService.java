@@ -1,26 +1,140 @@
 package com.sniff.location.service;
 
-import com.sniff.mapper.LocationMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sniff.location.exception.CityRegionsNotSeededException;
+import com.sniff.location.exception.RegionNotFoundException;
+import com.sniff.location.model.entity.City;
+import com.sniff.location.model.entity.Region;
 import com.sniff.location.model.response.Location;
+import com.sniff.location.model.response.SerializedLocations;
 import com.sniff.location.repository.CityRepository;
 import com.sniff.location.repository.RegionRepository;
+import com.sniff.mapper.LocationMapper;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
+/**
+ * Regions and cities practically never change, so they are read once into an immutable
+ * snapshot of pre-serialized JSON and served from memory. Call {@link #refresh()} after
+ * the dictionaries are modified to publish a new snapshot.
+ * <p>
+ * Cities of a region are only served once every city has a region: with unassigned cities the
+ * per-region lists would silently miss them, so those lookups fail until the regions are seeded.
+ */
 @Service
 @RequiredArgsConstructor
 public class LocationService {
+    private static final Logger log = LoggerFactory.getLogger(LocationService.class);
+
     private final RegionRepository regionRepository;
     private final CityRepository cityRepository;
     private final LocationMapper locationMapper;
+    private final ObjectMapper objectMapper;
+
+    private volatile Snapshot snapshot;
+
+    public SerializedLocations getRegions() {
+        return snapshot().regions();
+    }
+
+    public SerializedLocations getCities() {
+        return snapshot().cities();
+    }
+
+    public SerializedLocations getRegionCities(Long regionId) {
+        return getRegionCityIndex(snapshot(), regionId).cities();
+    }
+
+    public SerializedLocations searchCities(String prefix, Long regionId, int limit) {
+        Snapshot current = snapshot();
+        CityNameIndex names = regionId == null
+                ? current.cityNames()
+                : getRegionCityIndex(current, regionId).names();
+        return serialize(names.findByPrefix(prefix, limit));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void refresh() {
+        List<Region> regions = regionRepository.findAll();
+        List<City> cities = cityRepository.findAll();
+        long citiesWithoutRegion = cities.stream()
+                .filter(city -> city.getRegion() == null)
+                .count();
+        if (citiesWithoutRegion > 0) {
+            log.warn("{} cities have no region, cities by region are unavailable until they are seeded",
+                    citiesWithoutRegion);
+        }
+        Map<Long, List<City>> citiesByRegion = cities.stream()
+                .filter(city -> city.getRegion() != null)
+                .collect(Collectors.groupingBy(city -> city.getRegion().getId()));
+
+        Map<Long, RegionCities> regionCities = new HashMap<>();
+        for (Region region : regions) {
+            List<Location> locations = locationMapper.cityToLocation(
+                    citiesByRegion.getOrDefault(region.getId(), List.of()));
+            regionCities.put(region.getId(), new RegionCities(serialize(locations), new CityNameIndex(locations)));
+        }
+
+        List<Location> cityLocations = locationMapper.cityToLocation(cities);
+        snapshot = new Snapshot(
+                serialize(locationMapper.regionToLocation(regions)),
+                serialize(cityLocations),
+                new CityNameIndex(cityLocations),
+                Map.copyOf(regionCities),
+                citiesWithoutRegion);
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    refresh();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    private RegionCities getRegionCityIndex(Snapshot current, Long regionId) {
+        if (current.citiesWithoutRegion() > 0) {
+            throw new CityRegionsNotSeededException("Cities are not assigned to regions yet");
+        }
+        RegionCities regionCities = current.regionCities().get(regionId);
+        if (regionCities == null) {
+            throw new RegionNotFoundException("Region not found");
+        }
+        return regionCities;
+    }
+
+    private SerializedLocations serialize(List<Location> locations) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(locations);
+            return new SerializedLocations(json, "\"" + DigestUtils.md5DigestAsHex(json) + "\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize locations", e);
+        }
+    }
 
-    public List<Location> getRegions() {
-        return locationMapper.regionToLocation(regionRepository.findAll());
+    private record RegionCities(SerializedLocations cities, CityNameIndex names) {
     }
 
-    public List<Location> getCities() {
-        return locationMapper.cityToLocation(cityRepository.findAll());
+    private record Snapshot(SerializedLocations regions,
+                            SerializedLocations cities,
+                            CityNameIndex cityNames,
+                            Map<Long, RegionCities> regionCities,
+                            long citiesWithoutRegion) {
     }
 }
@@ -42,7 +42,7 @@ public interface Mappers {
     default PetCard toPetCard(Pet pet) {
         return PetCard.builder()
                 .id(pet.getId())
-                .photo(pet.getPhotos().stream().findFirst().orElse(null))
+                .photo(pet.getCoverPhoto())
                 .name(pet.getName())
                 .build();
     }
@@ -0,0 +1,37 @@
+package com.sniff.pagination;
+
+import com.sniff.pagination.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor. Encodes the id of the last returned row so the next page
+ * can be fetched with a {@code WHERE id < :after} seek instead of an OFFSET scan.
+ */
+public final class PageCursor {
+    private PageCursor() {
+    }
+
+    public static String encode(Long lastId) {
+        if (lastId == null) {
+            return null;
+        }
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(String.valueOf(lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Long decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            long id = Long.parseLong(decoded);
+            if (id <= 0) {
+                throw new InvalidCursorException("Invalid cursor");
+            }
+            return id;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+    }
+}
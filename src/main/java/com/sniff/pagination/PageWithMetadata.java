@@ -1,5 +1,6 @@
 package com.sniff.pagination;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
@@ -7,7 +8,17 @@ import java.util.List;
 
 @Getter
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class PageWithMetadata<T> {
     private List<T> content;
-    private int totalPages;
-}
\ No newline at end of file
+    private Integer totalPages;
+    private String nextCursor;
+
+    public PageWithMetadata(List<T> content, int totalPages) {
+        this(content, totalPages, null);
+    }
+
+    public static <T> PageWithMetadata<T> withCursor(List<T> content, String nextCursor) {
+        return new PageWithMetadata<>(content, null, nextCursor);
+    }
+}
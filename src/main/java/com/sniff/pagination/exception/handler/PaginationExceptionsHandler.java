@@ -0,0 +1,17 @@
+package com.sniff.pagination.exception.handler;
+
+import com.sniff.pagination.exception.InvalidCursorException;
+import com.sniff.utils.HttpResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+@RestControllerAdvice
+public class PaginationExceptionsHandler {
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler(InvalidCursorException.class)
+    public HttpResponse handlerInvalidCursorException(InvalidCursorException e) {
+        return new HttpResponse(e.getMessage());
+    }
+}
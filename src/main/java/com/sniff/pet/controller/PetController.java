@@ -18,6 +18,9 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.security.SecurityScheme;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
@@ -25,6 +28,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/v1/pets")
 @RequiredArgsConstructor
@@ -40,11 +45,15 @@ import org.springframework.web.bind.annotation.*;
 public class PetController {
     private final PetService petService;
 
-    @Operation(summary = "Get pet gallery")
+    @Operation(
+            summary = "Get pet gallery",
+            description = "Pass the nextCursor of the previous response as 'after' to page " +
+                    "through the gallery without counting total pages"
+    )
     @ApiResponses({
             @ApiResponse(responseCode = "200",
                     content = { @Content(schema = @Schema(implementation = PetCard.class)) }),
-            @ApiResponse(responseCode = "400", description = "Invalid query params",
+            @ApiResponse(responseCode = "400", description = "Invalid query params or cursor",
                     content = { @Content(schema = @Schema(implementation = HttpResponse.class)) })
     })
     @GetMapping
@@ -59,10 +68,45 @@ public class PetController {
             @RequestParam(required = false)
             Long regionId,
             @RequestParam(required = false)
-            Long cityId) {
+            Long cityId,
+            @RequestParam(required = false)
+            String after) {
+        if (after != null) {
+            return petService.getPetsGalleryAfter(after, size, status, regionId, cityId);
+        }
         return petService.getPetsGallery(page, size, status, regionId, cityId);
     }
 
+    @Operation(
+            summary = "Get pets nearby",
+            description = "Pet cards within the radius around the point, the closest first"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200",
+                    content = { @Content(schema = @Schema(implementation = PetCard.class)) }),
+            @ApiResponse(responseCode = "400", description = "Invalid query params",
+                    content = { @Content(schema = @Schema(implementation = HttpResponse.class)) })
+    })
+    @GetMapping("/nearby")
+    @ResponseStatus(HttpStatus.OK)
+    public List<PetCard> getPetsNearby(
+            @DecimalMin(value = "-90", message = "Latitude should be between -90 and 90")
+            @DecimalMax(value = "90", message = "Latitude should be between -90 and 90")
+            @RequestParam double lat,
+            @DecimalMin(value = "-180", message = "Longitude should be between -180 and 180")
+            @DecimalMax(value = "180", message = "Longitude should be between -180 and 180")
+            @RequestParam double lon,
+            @Positive(message = "Radius should be positive")
+            @DecimalMax(value = "100", message = "Radius should not be greater than 100 km")
+            @RequestParam(defaultValue = "10") double radiusKm,
+            @Positive(message = "Size should be positive")
+            @Max(value = 100, message = "Size should not be greater than 100")
+            @RequestParam(defaultValue = "12") int size,
+            @RequestParam(required = false)
+            PetStatus status) {
+        return petService.getPetsNearby(lat, lon, radiusKm, size, status);
+    }
+
     @Operation(summary = "Get pet profile")
     @ApiResponses({
             @ApiResponse(responseCode = "200",
@@ -0,0 +1,81 @@
+package com.sniff.pet.geo;
+
+import java.util.Arrays;
+
+/**
+ * Pets that fall into one grid cell, kept in parallel primitive arrays.
+ */
+class GeoCell {
+    private static final int INITIAL_CAPACITY = 4;
+
+    private final long key;
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private double[] latitudes = new double[INITIAL_CAPACITY];
+    private double[] longitudes = new double[INITIAL_CAPACITY];
+    private byte[] statuses = new byte[INITIAL_CAPACITY];
+    private int size;
+
+    GeoCell(long key) {
+        this.key = key;
+    }
+
+    long key() {
+        return key;
+    }
+
+    void add(long id, double latitude, double longitude, byte status) {
+        if (size == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            latitudes = Arrays.copyOf(latitudes, capacity);
+            longitudes = Arrays.copyOf(longitudes, capacity);
+            statuses = Arrays.copyOf(statuses, capacity);
+        }
+        ids[size] = id;
+        latitudes[size] = latitude;
+        longitudes[size] = longitude;
+        statuses[size] = status;
+        size++;
+    }
+
+    void remove(long id) {
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == id) {
+                size--;
+                ids[i] = ids[size];
+                latitudes[i] = latitudes[size];
+                longitudes[i] = longitudes[size];
+                statuses[i] = statuses[size];
+                return;
+            }
+        }
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long id(int index) {
+        return ids[index];
+    }
+
+    double latitude(int index) {
+        return latitudes[index];
+    }
+
+    double longitude(int index) {
+        return longitudes[index];
+    }
+
+    byte status(int index) {
+        return statuses[index];
+    }
+
+    long footprintBytes() {
+        return 24L + 4 * 16L + ids.length * (long) (Long.BYTES + 2 * Double.BYTES + Byte.BYTES);
+    }
+}
@@ -0,0 +1,286 @@
+package com.sniff.pet.geo;
+
+import com.sniff.pet.enums.PetStatus;
+import com.sniff.pet.repository.PetRepository;
+import com.sniff.utils.GeoArea;
+import com.sniff.utils.GeoUtils;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process grid index over pet coordinates, so "pets within N km" is answered
+ * without a database round trip. The world is split into 2^13 x 2^13 cells
+ * (about 2.4 km of latitude each) addressed by geohash-style interleaved long keys.
+ * The index is built when the application is ready and kept up to date by {@code PetService}
+ * once its transactions commit. Updates made while the index is rebuilt are recorded and replayed
+ * on the new index before it replaces the old one, so none of them is lost.
+ */
+@Component
+@RequiredArgsConstructor
+public class PetGeoIndex {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PetGeoIndex.class);
+    private static final int CELL_BITS = 13;
+    private static final int CELLS_PER_AXIS = 1 << CELL_BITS;
+    private static final byte ANY_STATUS = -1;
+
+    private final PetRepository petRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private LongObjectMap<GeoCell> cells = new LongObjectMap<>();
+    private LongObjectMap<GeoCell> cellsByPetId = new LongObjectMap<>();
+    private List<Update> pendingUpdates;
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        LongObjectMap<GeoCell> newCells;
+        LongObjectMap<GeoCell> newCellsByPetId;
+        lock.writeLock().lock();
+        try {
+            pendingUpdates = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            List<PetLocation> locations = petRepository.findAllLocations();
+            newCells = new LongObjectMap<>(locations.size());
+            newCellsByPetId = new LongObjectMap<>(locations.size());
+            for (PetLocation location : locations) {
+                add(newCells, newCellsByPetId, location.getId(),
+                        location.getLatitude(), location.getLongitude(), location.getStatus());
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingUpdates = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Update update : pendingUpdates) {
+                update.applyTo(newCells, newCellsByPetId);
+            }
+            pendingUpdates = null;
+            cells = newCells;
+            cellsByPetId = newCellsByPetId;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        LOGGER.info("Pet geo index built: {} pets in {} cells, ~{} KB",
+                size(), newCells.size(), memoryFootprintBytes() / 1024);
+    }
+
+    public void put(long petId, double latitude, double longitude, PetStatus status) {
+        apply(new Update(petId, latitude, longitude, status));
+    }
+
+    public void remove(long petId) {
+        apply(new Update(petId, 0, 0, null));
+    }
+
+    /**
+     * Puts the pet once the current transaction commits, so a rolled back write never shows up
+     * in nearby search. Without a transaction the pet is put right away.
+     */
+    public void putAfterCommit(long petId, double latitude, double longitude, PetStatus status) {
+        afterCommit(() -> put(petId, latitude, longitude, status));
+    }
+
+    /**
+     * Removes the pet once the current transaction commits, or right away without a transaction.
+     */
+    public void removeAfterCommit(long petId) {
+        afterCommit(() -> remove(petId));
+    }
+
+    /**
+     * Ids of pets within the radius, the closest first.
+     */
+    public List<Long> findNearby(double latitude, double longitude, double radiusKm, PetStatus status, int limit) {
+        GeoArea area = GeoArea.around(latitude, longitude, radiusKm);
+        byte requiredStatus = status == null ? ANY_STATUS : (byte) status.ordinal();
+        PriorityQueue<Candidate> closest = new PriorityQueue<>(limit + 1,
+                Comparator.comparingDouble(Candidate::distanceKm).reversed());
+
+        lock.readLock().lock();
+        try {
+            collect(area, area.getMinLongitude(), area.getMaxLongitude(), radiusKm, requiredStatus, limit, closest);
+            collect(area, area.getWrappedMinLongitude(), area.getWrappedMaxLongitude(),
+                    radiusKm, requiredStatus, limit, closest);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Candidate> sorted = new ArrayList<>(closest);
+        sorted.sort(Comparator.comparingDouble(Candidate::distanceKm)
+                .thenComparing(Candidate::id, Comparator.reverseOrder()));
+        return sorted.stream().map(Candidate::id).toList();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return cellsByPetId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Approximate heap used by the index structures, assuming compressed oops.
+     */
+    public long memoryFootprintBytes() {
+        lock.readLock().lock();
+        try {
+            long[] footprint = { cells.footprintBytes() + cellsByPetId.footprintBytes() };
+            cells.forEachValue(cell -> footprint[0] += cell.footprintBytes());
+            return footprint[0];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Offers the pets of the cells within the latitude range of the area and the given longitude
+     * range, which is empty when its minimum is above its maximum.
+     */
+    private void collect(GeoArea area, double minLongitude, double maxLongitude, double radiusKm,
+                         byte requiredStatus, int limit, PriorityQueue<Candidate> closest) {
+        if (minLongitude > maxLongitude) {
+            return;
+        }
+        int minLatitudeIndex = latitudeIndex(area.getMinLatitude());
+        int maxLatitudeIndex = latitudeIndex(area.getMaxLatitude());
+        int minLongitudeIndex = longitudeIndex(minLongitude);
+        int maxLongitudeIndex = longitudeIndex(maxLongitude);
+        for (int latitudeIndex = minLatitudeIndex; latitudeIndex <= maxLatitudeIndex; latitudeIndex++) {
+            for (int longitudeIndex = minLongitudeIndex; longitudeIndex <= maxLongitudeIndex; longitudeIndex++) {
+                GeoCell cell = cells.get(cellKey(latitudeIndex, longitudeIndex));
+                if (cell == null) {
+                    continue;
+                }
+                for (int i = 0; i < cell.size(); i++) {
+                    if (requiredStatus != ANY_STATUS && cell.status(i) != requiredStatus) {
+                        continue;
+                    }
+                    double distanceKm = GeoUtils.distanceKm(area.getLatitude(), area.getLongitude(),
+                            cell.latitude(i), cell.longitude(i));
+                    if (distanceKm > radiusKm) {
+                        continue;
+                    }
+                    closest.offer(new Candidate(cell.id(i), distanceKm));
+                    if (closest.size() > limit) {
+                        closest.poll();
+                    }
+                }
+            }
+        }
+    }
+
+    private void apply(Update update) {
+        lock.writeLock().lock();
+        try {
+            update.applyTo(cells, cellsByPetId);
+            if (pendingUpdates != null) {
+                pendingUpdates.add(update);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+
+    private static void removeFromCell(LongObjectMap<GeoCell> cells, LongObjectMap<GeoCell> cellsByPetId,
+                                       long petId) {
+        GeoCell cell = cellsByPetId.get(petId);
+        if (cell == null) {
+            return;
+        }
+        cell.remove(petId);
+        cellsByPetId.remove(petId);
+        if (cell.isEmpty()) {
+            cells.remove(cell.key());
+        }
+    }
+
+    private static void add(LongObjectMap<GeoCell> cells, LongObjectMap<GeoCell> cellsByPetId,
+                            long petId, double latitude, double longitude, PetStatus status) {
+        long key = cellKey(latitudeIndex(latitude), longitudeIndex(longitude));
+        GeoCell cell = cells.get(key);
+        if (cell == null) {
+            cell = new GeoCell(key);
+            cells.put(key, cell);
+        }
+        cell.add(petId, latitude, longitude, (byte) status.ordinal());
+        cellsByPetId.put(petId, cell);
+    }
+
+    static long cellKey(int latitudeIndex, int longitudeIndex) {
+        long key = 0;
+        for (int bit = CELL_BITS - 1; bit >= 0; bit--) {
+            key = (key << 1) | ((longitudeIndex >>> bit) & 1);
+            key = (key << 1) | ((latitudeIndex >>> bit) & 1);
+        }
+        return key;
+    }
+
+    private static int latitudeIndex(double latitude) {
+        return index((latitude + 90) / 180);
+    }
+
+    private static int longitudeIndex(double longitude) {
+        return index((longitude + 180) / 360);
+    }
+
+    private static int index(double fraction) {
+        return Math.min(Math.max((int) (fraction * CELLS_PER_AXIS), 0), CELLS_PER_AXIS - 1);
+    }
+
+    private record Candidate(long id, double distanceKm) {
+    }
+
+    /**
+     * A put, or a removal when the status is {@code null}.
+     */
+    private record Update(long petId, double latitude, double longitude, PetStatus status) {
+        void applyTo(LongObjectMap<GeoCell> cells, LongObjectMap<GeoCell> cellsByPetId) {
+            removeFromCell(cells, cellsByPetId, petId);
+            if (status != null) {
+                add(cells, cellsByPetId, petId, latitude, longitude, status);
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.sniff.pet.geo;
+
+import com.sniff.pet.enums.PetStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class PetLocation {
+    private Long id;
+    private Double latitude;
+    private Double longitude;
+    private PetStatus status;
+}
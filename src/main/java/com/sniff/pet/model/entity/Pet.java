@@ -1,5 +1,7 @@
 package com.sniff.pet.model.entity;
 
+import com.sniff.location.model.entity.City;
+import com.sniff.location.model.entity.Region;
 import com.sniff.pet.enums.Gender;
 import com.sniff.pet.enums.PetStatus;
 import com.sniff.user.model.entity.User;
@@ -9,11 +11,16 @@ import lombok.*;
 import java.time.LocalDate;
 import java.util.List;
 
-import static jakarta.persistence.FetchType.EAGER;
 import static jakarta.persistence.FetchType.LAZY;
 
 @Entity(name = "pet")
-@Table(name = "pet")
+@Table(name = "pet", indexes = {
+        @Index(name = "idx_pet_coordinates", columnList = "latitude, longitude"),
+        @Index(name = "idx_pet_status_id", columnList = "status, id DESC"),
+        @Index(name = "idx_pet_author_id", columnList = "author_id, id DESC"),
+        @Index(name = "idx_pet_region_id", columnList = "region_id, id DESC"),
+        @Index(name = "idx_pet_city_id", columnList = "city_id, id DESC")
+})
 @Getter
 @Setter
 @AllArgsConstructor
@@ -28,18 +35,24 @@ public class Pet {
     @Column(name = "status", nullable = false)
     private PetStatus status;
 
-    @ElementCollection(fetch = EAGER)
+    @ElementCollection(fetch = LAZY)
+    @CollectionTable(name = "pet_photos",
+            indexes = @Index(name = "idx_pet_photos_photos", columnList = "photos"))
+    @OrderColumn(name = "photo_order")
     @Column(name = "photos")
     private List<String> photos;
 
+    @Column(name = "cover_photo")
+    private String coverPhoto;
+
     @Column(name = "name", nullable = false, length = 30)
     private String name;
 
     @Column(name = "latitude", nullable = false)
-    private String latitude;
+    private Double latitude;
 
     @Column(name = "longitude", nullable = false)
-    private String longitude;
+    private Double longitude;
 
     @Enumerated(EnumType.STRING)
     @Column(name = "gender", nullable = false)
@@ -54,4 +67,12 @@ public class Pet {
     @ManyToOne(fetch = LAZY)
     @JoinColumn(name = "author_id", referencedColumnName = "id")
     private User author;
+
+    @ManyToOne(fetch = LAZY)
+    @JoinColumn(name = "region_id", referencedColumnName = "id")
+    private Region region;
+
+    @ManyToOne(fetch = LAZY)
+    @JoinColumn(name = "city_id", referencedColumnName = "id")
+    private City city;
 }
@@ -3,6 +3,8 @@ package com.sniff.pet.model.request;
 import com.sniff.pet.enums.Gender;
 import com.sniff.pet.enums.PetStatus;
 import com.sniff.utils.enums.ValidEnumValue;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -23,11 +25,15 @@ public class PetProfileModify {
     @NotBlank(message = "Name should not be empty")
     private String name;
 
-    @NotBlank(message = "Latitude should not be empty")
-    private String latitude;
+    @NotNull(message = "Latitude should not be empty")
+    @DecimalMin(value = "-90", message = "Latitude should be between -90 and 90")
+    @DecimalMax(value = "90", message = "Latitude should be between -90 and 90")
+    private Double latitude;
 
-    @NotBlank(message = "Longitude should not be empty")
-    private String longitude;
+    @NotNull(message = "Longitude should not be empty")
+    @DecimalMin(value = "-180", message = "Longitude should be between -180 and 180")
+    @DecimalMax(value = "180", message = "Longitude should be between -180 and 180")
+    private Double longitude;
 
     @ValidEnumValue(enumClass = Gender.class)
     private String gender;
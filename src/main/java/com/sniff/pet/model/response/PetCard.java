@@ -1,5 +1,6 @@
 package com.sniff.pet.model.response;
 
+import com.sniff.filestore.model.response.ImageVariants;
 import lombok.*;
 
 @Getter
@@ -11,4 +12,8 @@ public class PetCard {
     private Long id;
     private String photo;
     private String name;
+
+    public ImageVariants getPhotoVariants() {
+        return ImageVariants.of(photo);
+    }
 }
@@ -1,5 +1,6 @@
 package com.sniff.pet.model.response;
 
+import com.sniff.filestore.model.response.ImageVariants;
 import com.sniff.pet.enums.Gender;
 import com.sniff.pet.enums.PetStatus;
 import com.sniff.user.model.response.UserProfile;
@@ -22,9 +23,9 @@ public class PetProfile {
 
     private String name;
 
-    private String latitude;
+    private Double latitude;
 
-    private String longitude;
+    private Double longitude;
 
     private Gender gender;
 
@@ -33,4 +34,8 @@ public class PetProfile {
     private String description;
 
     private UserProfile author;
+
+    public List<ImageVariants> getPhotoVariants() {
+        return photos == null ? null : photos.stream().map(ImageVariants::of).toList();
+    }
 }
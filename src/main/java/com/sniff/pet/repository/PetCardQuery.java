@@ -0,0 +1,111 @@
+package com.sniff.pet.repository;
+
+import com.sniff.pet.enums.PetStatus;
+import jakarta.persistence.TypedQuery;
+
+import java.util.StringJoiner;
+
+import static com.sniff.pet.repository.PetRepository.PET_CARD_SELECT;
+
+/**
+ * Composes pet card queries that contain only the predicates of the supplied filters.
+ * The JPQL of every filter combination is built once, so each combination keeps a single
+ * statement text and gets its own plan instead of a generic {@code :x IS NULL OR ...} one.
+ */
+public final class PetCardQuery {
+    private static final Filter[] FILTERS = Filter.values();
+    private static final String[] SELECTS = new String[1 << FILTERS.length];
+    private static final String[] COUNTS = new String[1 << FILTERS.length];
+
+    static {
+        for (int mask = 0; mask < SELECTS.length; mask++) {
+            String where = where(mask);
+            SELECTS[mask] = PET_CARD_SELECT + where + "ORDER BY p.id DESC";
+            COUNTS[mask] = "SELECT COUNT(p) FROM pet p " + where;
+        }
+    }
+
+    private final Object[] values = new Object[FILTERS.length];
+    private int mask;
+
+    public PetCardQuery status(PetStatus status) {
+        return with(Filter.STATUS, status);
+    }
+
+    public PetCardQuery region(Long regionId) {
+        return with(Filter.REGION, regionId);
+    }
+
+    public PetCardQuery city(Long cityId) {
+        return with(Filter.CITY, cityId);
+    }
+
+    public PetCardQuery author(Long authorId) {
+        return with(Filter.AUTHOR, authorId);
+    }
+
+    public PetCardQuery before(Long id) {
+        return with(Filter.BEFORE, id);
+    }
+
+    public String selectJpql() {
+        return SELECTS[mask];
+    }
+
+    public String countJpql() {
+        return COUNTS[mask];
+    }
+
+    <T> TypedQuery<T> bind(TypedQuery<T> query) {
+        for (Filter filter : FILTERS) {
+            if (isSet(filter)) {
+                query.setParameter(filter.parameter, values[filter.ordinal()]);
+            }
+        }
+        return query;
+    }
+
+    private PetCardQuery with(Filter filter, Object value) {
+        values[filter.ordinal()] = value;
+        if (value != null) {
+            mask |= filter.bit();
+        } else {
+            mask &= ~filter.bit();
+        }
+        return this;
+    }
+
+    private boolean isSet(Filter filter) {
+        return (mask & filter.bit()) != 0;
+    }
+
+    private static String where(int mask) {
+        StringJoiner predicates = new StringJoiner(" AND ", "WHERE ", " ").setEmptyValue("");
+        for (Filter filter : FILTERS) {
+            if ((mask & filter.bit()) != 0) {
+                predicates.add(filter.predicate);
+            }
+        }
+        return predicates.toString();
+    }
+
+    private enum Filter {
+        AUTHOR("authorId", "p.author.id = :authorId"),
+        STATUS("status", "p.status = :status"),
+        REGION("regionId", "p.region.id = :regionId"),
+        CITY("cityId", "p.city.id = :cityId"),
+        BEFORE("before", "p.id < :before");
+
+        private final String parameter;
+        private final String predicate;
+
+        Filter(String parameter, String predicate) {
+            this.parameter = parameter;
+            this.predicate = predicate;
+        }
+
+        private int bit() {
+            return 1 << ordinal();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.sniff.pet.repository;
+
+import com.sniff.pet.enums.PetStatus;
+import com.sniff.pet.model.response.PetCard;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+public interface PetCardRepository {
+    Page<PetCard> findPetsByStatusRegionAndCity(PetStatus status,
+                                                Long regionId,
+                                                Long cityId,
+                                                Pageable pageable);
+
+    Slice<PetCard> findPetsByStatusRegionAndCityAfter(PetStatus status,
+                                                      Long regionId,
+                                                      Long cityId,
+                                                      Long after,
+                                                      Pageable pageable);
+
+    Page<PetCard> findPetCardsByAuthor(Long authorId, PetStatus status, Pageable pageable);
+}
@@ -0,0 +1,54 @@
+package com.sniff.pet.repository;
+
+import com.sniff.pet.enums.PetStatus;
+import com.sniff.pet.model.response.PetCard;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+
+public class PetCardRepositoryImpl implements PetCardRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<PetCard> findPetsByStatusRegionAndCity(PetStatus status,
+                                                       Long regionId,
+                                                       Long cityId,
+                                                       Pageable pageable) {
+        return findPage(new PetCardQuery().status(status).region(regionId).city(cityId), pageable);
+    }
+
+    @Override
+    public Slice<PetCard> findPetsByStatusRegionAndCityAfter(PetStatus status,
+                                                             Long regionId,
+                                                             Long cityId,
+                                                             Long after,
+                                                             Pageable pageable) {
+        PetCardQuery query = new PetCardQuery().status(status).region(regionId).city(cityId).before(after);
+        List<PetCard> content = query.bind(entityManager.createQuery(query.selectJpql(), PetCard.class))
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean hasNext = content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    @Override
+    public Page<PetCard> findPetCardsByAuthor(Long authorId, PetStatus status, Pageable pageable) {
+        return findPage(new PetCardQuery().author(authorId).status(status), pageable);
+    }
+
+    private Page<PetCard> findPage(PetCardQuery query, Pageable pageable) {
+        List<PetCard> content = query.bind(entityManager.createQuery(query.selectJpql(), PetCard.class))
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> query.bind(entityManager.createQuery(query.countJpql(), Long.class)).getSingleResult());
+    }
+}
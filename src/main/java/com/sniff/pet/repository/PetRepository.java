@@ -1,21 +1,65 @@
 package com.sniff.pet.repository;
 
+import com.sniff.location.model.entity.City;
+import com.sniff.location.model.entity.Region;
 import com.sniff.pet.enums.PetStatus;
+import com.sniff.pet.geo.PetLocation;
 import com.sniff.pet.model.entity.Pet;
-import org.springframework.data.domain.Page;
+import com.sniff.pet.model.response.PetCard;
+import com.sniff.utils.GeoArea;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface PetRepository extends JpaRepository<Pet, Long> {
-    @Query("SELECT p FROM pet p " +
-            "WHERE (:status IS NULL OR p.status = :status) " +
-            "AND (:regionId IS NULL OR p.author.region.id = :regionId) " +
-            "AND (:cityId IS NULL OR p.author.city.id = :cityId) " +
-            "ORDER BY p.id DESC")
-    Page<Pet> findPetsByStatusRegionAndCity(PetStatus status,
-                                            Long regionId,
-                                            Long cityId,
-                                            Pageable pageable);
+import java.util.Collection;
+import java.util.List;
 
+public interface PetRepository extends JpaRepository<Pet, Long>, PetCardRepository {
+    /**
+     * Selects the card columns directly instead of hydrating {@link Pet} entities, so a page
+     * is a single scan over the pet table (plus the count) without touching the photos.
+     */
+    String PET_CARD_SELECT = "SELECT new com.sniff.pet.model.response.PetCard(p.id, p.coverPhoto, p.name) " +
+            "FROM pet p ";
+
+    String LATITUDE_DELTA = "(p.latitude - cast(:#{#area.latitude} as Double))";
+    String RAW_LONGITUDE_DELTA = "(p.longitude - cast(:#{#area.longitude} as Double))";
+    /**
+     * Longitude difference taken the short way round, so points on both sides of the antimeridian are close.
+     */
+    String LONGITUDE_DELTA = "(CASE WHEN " + RAW_LONGITUDE_DELTA + " > 180 THEN " + RAW_LONGITUDE_DELTA + " - 360 " +
+            "WHEN " + RAW_LONGITUDE_DELTA + " < -180 THEN " + RAW_LONGITUDE_DELTA + " + 360 " +
+            "ELSE " + RAW_LONGITUDE_DELTA + " END)";
+    String SQUARED_DISTANCE = "(" + LATITUDE_DELTA + " * " + LATITUDE_DELTA + " + " +
+            LONGITUDE_DELTA + " * " + LONGITUDE_DELTA + " * :#{#area.longitudeScale}) ";
+
+    @Query(PET_CARD_SELECT +
+            "WHERE p.latitude BETWEEN :#{#area.minLatitude} AND :#{#area.maxLatitude} " +
+            "AND (p.longitude BETWEEN :#{#area.minLongitude} AND :#{#area.maxLongitude} " +
+            "OR p.longitude BETWEEN :#{#area.wrappedMinLongitude} AND :#{#area.wrappedMaxLongitude}) " +
+            "AND (:status IS NULL OR p.status = :status) " +
+            "AND " + SQUARED_DISTANCE + "<= :#{#area.maxSquaredDistance} " +
+            "ORDER BY " + SQUARED_DISTANCE + ", p.id DESC")
+    List<PetCard> findPetsNearby(@Param("area") GeoArea area,
+                                 @Param("status") PetStatus status,
+                                 Pageable pageable);
+
+    @Query(PET_CARD_SELECT + "WHERE p.id IN :ids")
+    List<PetCard> findPetCardsByIds(Collection<Long> ids);
+
+    @Query("SELECT new com.sniff.pet.geo.PetLocation(p.id, p.latitude, p.longitude, p.status) FROM pet p")
+    List<PetLocation> findAllLocations();
+
+    /**
+     * Photo URLs whose last {@code length} characters are one of the suffixes, which all have that length.
+     */
+    @Query("SELECT photo FROM pet p JOIN p.photos photo " +
+            "WHERE LENGTH(photo) >= :length AND SUBSTRING(photo, LENGTH(photo) - :length + 1) IN :suffixes")
+    List<String> findPhotosEndingIn(int length, Collection<String> suffixes);
+
+    @Modifying
+    @Query("UPDATE pet p SET p.region = :region, p.city = :city WHERE p.author.id = :authorId")
+    void updateLocationByAuthorId(Long authorId, Region region, City city);
 }
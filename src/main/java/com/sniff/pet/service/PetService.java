@@ -3,11 +3,13 @@ package com.sniff.pet.service;
 import com.sniff.auth.service.AuthVerifyService;
 import com.sniff.location.exception.MissingLocationException;
 import com.sniff.mapper.Mappers;
+import com.sniff.pagination.PageCursor;
 import com.sniff.pagination.PageWithMetadata;
 import com.sniff.pet.enums.Gender;
 import com.sniff.pet.enums.PetStatus;
 import com.sniff.pet.exceptions.PetNotBelongingToUserException;
 import com.sniff.pet.exceptions.PetNotFoundException;
+import com.sniff.pet.geo.PetGeoIndex;
 import com.sniff.pet.model.entity.Pet;
 import com.sniff.pet.model.request.PetProfileModify;
 import com.sniff.pet.model.response.PetCard;
@@ -16,14 +18,20 @@ import com.sniff.pet.repository.PetRepository;
 import com.sniff.user.exception.UserNotFoundException;
 import com.sniff.user.model.entity.User;
 import com.sniff.user.repository.UserRepository;
+import com.sniff.utils.GeoArea;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -33,13 +41,41 @@ public class PetService {
     private final UserRepository userRepository;
     private final AuthVerifyService authVerifyService;
     private final Mappers mapper;
+    private final PetGeoIndex petGeoIndex;
 
+    @Transactional(readOnly = true)
     public PageWithMetadata<PetCard> getPetsGallery(int page, int size, PetStatus status, Long regionId, Long cityId) {
-        Page<Pet> pets = petRepository.findPetsByStatusRegionAndCity(status, regionId, cityId, PageRequest.of(page, size));
-        List<PetCard> petCards = mapper.toPetCards(pets.getContent());
-        return new PageWithMetadata<>(petCards, pets.getTotalPages());
+        Page<PetCard> pets = petRepository.findPetsByStatusRegionAndCity(status, regionId, cityId, PageRequest.of(page, size));
+        return new PageWithMetadata<>(pets.getContent(), pets.getTotalPages(), nextCursor(pets));
+    }
+
+    @Transactional(readOnly = true)
+    public PageWithMetadata<PetCard> getPetsGalleryAfter(String after, int size, PetStatus status,
+                                                         Long regionId, Long cityId) {
+        Slice<PetCard> pets = petRepository.findPetsByStatusRegionAndCityAfter(
+                status, regionId, cityId, PageCursor.decode(after), PageRequest.of(0, size));
+        return PageWithMetadata.withCursor(pets.getContent(), nextCursor(pets));
     }
 
+    @Transactional(readOnly = true)
+    public List<PetCard> getPetsNearby(double latitude, double longitude, double radiusKm,
+                                       int size, PetStatus status) {
+        if (!petGeoIndex.isReady()) {
+            GeoArea area = GeoArea.around(latitude, longitude, radiusKm);
+            return petRepository.findPetsNearby(area, status, PageRequest.of(0, size));
+        }
+
+        List<Long> ids = petGeoIndex.findNearby(latitude, longitude, radiusKm, status, size);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, PetCard> petCards = petRepository.findPetCardsByIds(ids).stream()
+                .collect(Collectors.toMap(PetCard::getId, Function.identity()));
+        return ids.stream()
+                .map(petCards::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
 
     @Transactional(readOnly = true)
     public PetProfile getPetProfileById(Long id) {
@@ -56,9 +92,12 @@ public class PetService {
         }
         Pet pet = mapper.toPet(petProfileModify);
         pet.setAuthor(user);
+        pet.setRegion(user.getRegion());
+        pet.setCity(user.getCity());
         petRepository.save(pet);
         user.getPets().add(pet);
         userRepository.save(user);
+        petGeoIndex.putAfterCommit(pet.getId(), pet.getLatitude(), pet.getLongitude(), pet.getStatus());
         return mapper.toPetProfileWithUserFullProfile(pet);
     }
 
@@ -77,9 +116,19 @@ public class PetService {
                 .ifPresent(petToUpdate::setDescription);
 
         petRepository.save(petToUpdate);
+        petGeoIndex.putAfterCommit(petToUpdate.getId(), petToUpdate.getLatitude(),
+                petToUpdate.getLongitude(), petToUpdate.getStatus());
         return mapper.toPetProfileWithUserFullProfile(petToUpdate);
     }
 
+    private String nextCursor(Slice<PetCard> pets) {
+        if (!pets.hasNext() || pets.getContent().isEmpty()) {
+            return null;
+        }
+        List<PetCard> content = pets.getContent();
+        return PageCursor.encode(content.get(content.size() - 1).getId());
+    }
+
     private User getUserById(Long id) {
         return userRepository.findById(id)
                 .orElseThrow(() -> new UserNotFoundException("User not found"));
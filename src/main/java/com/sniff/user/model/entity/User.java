@@ -10,7 +10,11 @@ import lombok.*;
 import java.util.List;
 
 @Entity(name = "users")
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_region_city", columnList = "region_id, city_id"),
+        @Index(name = "idx_users_city", columnList = "city_id"),
+        @Index(name = "idx_users_avatar", columnList = "avatar")
+})
 @Getter
 @Setter
 @AllArgsConstructor
@@ -1,5 +1,6 @@
 package com.sniff.user.model.response;
 
+import com.sniff.filestore.model.response.ImageVariants;
 import lombok.*;
 
 @Getter
@@ -20,4 +21,8 @@ public class UserProfile {
     private String region;
 
     private String city;
+
+    public ImageVariants getAvatarVariants() {
+        return ImageVariants.of(avatar);
+    }
 }
@@ -1,13 +1,11 @@
 package com.sniff.user.repository;
 
-import com.sniff.pet.enums.PetStatus;
-import com.sniff.pet.model.entity.Pet;
 import com.sniff.user.model.entity.User;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -17,9 +15,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByEmailIgnoreCase(String email);
 
-    @Query("SELECT p FROM pet p " +
-            "WHERE (:status IS NULL OR p.status = :status) " +
-            "AND p.author.id = :id " +
-            "ORDER BY p.id DESC")
-    Page<Pet> getUserPetCards(Long id, PetStatus status, Pageable pageable);
+    /**
+     * Avatar URLs whose last {@code length} characters are one of the suffixes, which all have that length.
+     */
+    @Query("SELECT u.avatar FROM users u " +
+            "WHERE LENGTH(u.avatar) >= :length AND SUBSTRING(u.avatar, LENGTH(u.avatar) - :length + 1) IN :suffixes")
+    List<String> findAvatarsEndingIn(int length, Collection<String> suffixes);
 }
@@ -1,12 +1,15 @@
 package com.sniff.user.service;
 
 import com.sniff.auth.service.AuthVerifyService;
+import com.sniff.auth.service.RefreshTokenService;
+import com.sniff.filestore.service.FileStoreService;
 import com.sniff.location.exception.CityNotFoundException;
 import com.sniff.location.exception.RegionNotFoundException;
 import com.sniff.mapper.Mappers;
 import com.sniff.pagination.PageWithMetadata;
 import com.sniff.pet.enums.PetStatus;
-import com.sniff.pet.model.entity.Pet;
+import com.sniff.pet.geo.PetGeoIndex;
+import com.sniff.pet.repository.PetRepository;
 import com.sniff.pet.model.response.PetCard;
 import com.sniff.user.exception.InvalidPasswordException;
 import com.sniff.user.exception.InvalidPhoneException;
@@ -30,7 +33,7 @@ import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 import static com.sniff.utils.Validation.isValidPassword;
@@ -46,6 +49,10 @@ public class UserService {
     private final RegionRepository regionRepository;
     private final CityRepository cityRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PetGeoIndex petGeoIndex;
+    private final PetRepository petRepository;
+    private final FileStoreService fileStoreService;
+    private final RefreshTokenService refreshTokenService;
 
     @Transactional(readOnly = true)
     public UserProfile getUserProfileById(Long id) {
@@ -58,9 +65,8 @@ public class UserService {
     @Transactional(readOnly = true)
     public PageWithMetadata<PetCard> getUserPetCards(Long id, int page, int size, PetStatus status) {
         validateUserExists(id);
-        Page<Pet> pets = userRepository.getUserPetCards(id, status, PageRequest.of(page, size));
-        List<PetCard> petCards = mappers.toPetCards(pets.getContent());
-        return new PageWithMetadata<>(petCards, pets.getTotalPages());
+        Page<PetCard> petCards = petRepository.findPetCardsByAuthor(id, status, PageRequest.of(page, size));
+        return new PageWithMetadata<>(petCards.getContent(), petCards.getTotalPages());
     }
 
     public UserFullProfile updateUserProfile(Long id, UserUpdate updatedUser) {
@@ -91,6 +97,9 @@ public class UserService {
         userToUpdate.setFirstname(updatedUser.getFirstname());
         userToUpdate.setLastname(updatedUser.getLastname());
 
+        Long previousRegionId = userToUpdate.getRegion() != null ? userToUpdate.getRegion().getId() : null;
+        Long previousCityId = userToUpdate.getCity() != null ? userToUpdate.getCity().getId() : null;
+
         Optional<Region> optionalRegion = Optional.ofNullable(updatedUser.getRegionId())
                 .map(this::getRegionById);
         userToUpdate.setRegion(optionalRegion.orElse(null));
@@ -102,9 +111,13 @@ public class UserService {
         optionalRegion.ifPresent(region -> region.getUsers().add(userToUpdate));
         optionalCity.ifPresent(city -> city.getUsers().add(userToUpdate));
 
-
         userRepository.save(userToUpdate);
 
+        if (!Objects.equals(previousRegionId, updatedUser.getRegionId())
+                || !Objects.equals(previousCityId, updatedUser.getCityId())) {
+            petRepository.updateLocationByAuthorId(id, userToUpdate.getRegion(), userToUpdate.getCity());
+        }
+
         return mappers.toUserFullProfile(userToUpdate);
     }
 
@@ -130,10 +143,16 @@ public class UserService {
 
         user.setPassword(passwordEncoder.encode(passwordUpdate.getNewPassword()));
         userRepository.save(user);
+        refreshTokenService.revokeAll(id);
     }
 
     public void deleteUser(Long id) {
         authVerifyService.verifyAccess(id);
+        userRepository.findById(id).ifPresent(user -> {
+            user.getPets().forEach(pet -> petGeoIndex.removeAfterCommit(pet.getId()));
+            fileStoreService.deleteAllUserImages(user);
+            refreshTokenService.revokeAll(id);
+        });
         userRepository.deleteById(id);
     }
 
@@ -0,0 +1,70 @@
+package com.sniff.utils;
+
+import lombok.Getter;
+
+/**
+ * Circular search area around a point, together with its bounding box.
+ * The bounding box is what the {@code (latitude, longitude)} index can seek on;
+ * the squared distance parameters let a query refine it to the circle and
+ * order by distance with plain arithmetic, which works the same on H2 and Postgres.
+ * A box that crosses the antimeridian is split in two longitude ranges: the main one ends
+ * at ±180 and the wrapped one continues from the other side.
+ */
+@Getter
+public class GeoArea {
+    public static final double KM_PER_DEGREE = Math.PI * GeoUtils.EARTH_RADIUS_KM / 180;
+
+    private final double latitude;
+    private final double longitude;
+    private final double minLatitude;
+    private final double maxLatitude;
+    private final double minLongitude;
+    private final double maxLongitude;
+    /** Part of the box past ±180, moved to the other side; empty (min above max) unless the box crosses it. */
+    private final double wrappedMinLongitude;
+    private final double wrappedMaxLongitude;
+    /** cos²(latitude), shrinks longitude degrees to the length of latitude degrees at this point. */
+    private final double longitudeScale;
+    /** Radius expressed in squared latitude degrees. */
+    private final double maxSquaredDistance;
+
+    private GeoArea(double latitude, double longitude, double radiusKm) {
+        double radiusDegrees = radiusKm / KM_PER_DEGREE;
+        double cosLatitude = Math.max(Math.cos(Math.toRadians(latitude)), 1e-6);
+        double longitudeDegrees = Math.min(radiusDegrees / cosLatitude, 180);
+
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.minLatitude = Math.max(latitude - radiusDegrees, -90);
+        this.maxLatitude = Math.min(latitude + radiusDegrees, 90);
+        double west = longitude - longitudeDegrees;
+        double east = longitude + longitudeDegrees;
+        if (longitudeDegrees >= 180) {
+            this.minLongitude = -180;
+            this.maxLongitude = 180;
+            this.wrappedMinLongitude = 180;
+            this.wrappedMaxLongitude = -180;
+        } else if (west < -180) {
+            this.minLongitude = -180;
+            this.maxLongitude = east;
+            this.wrappedMinLongitude = west + 360;
+            this.wrappedMaxLongitude = 180;
+        } else if (east > 180) {
+            this.minLongitude = west;
+            this.maxLongitude = 180;
+            this.wrappedMinLongitude = -180;
+            this.wrappedMaxLongitude = east - 360;
+        } else {
+            this.minLongitude = west;
+            this.maxLongitude = east;
+            this.wrappedMinLongitude = 180;
+            this.wrappedMaxLongitude = -180;
+        }
+        this.longitudeScale = cosLatitude * cosLatitude;
+        this.maxSquaredDistance = radiusDegrees * radiusDegrees;
+    }
+
+    public static GeoArea around(double latitude, double longitude, double radiusKm) {
+        return new GeoArea(latitude, longitude, radiusKm);
+    }
+}
@@ -1,35 +1,102 @@
 package com.sniff.utils;
 
 import com.sniff.filestore.exception.EmptyFileException;
+import com.sniff.filestore.exception.ImageTooLargeException;
 import com.sniff.filestore.exception.IncorrectFileFormatException;
 import org.apache.commons.lang3.StringUtils;
 import org.imgscalr.Scalr;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Arrays;
+import java.util.Iterator;
 
 import static org.apache.http.entity.ContentType.*;
 
 public class ImageUtils {
-    private static final double IMAGE_RESIZE_RATIO = 1.2;
+    static {
+        // Encode through an in-memory cache instead of a temporary file per image
+        ImageIO.setUseCache(false);
+    }
+
+    /**
+     * Decodes the image close to the target size. The dimensions are read from the header first,
+     * so images over {@code maxPixels} are rejected before any bitmap is allocated, and large ones
+     * are decoded with source subsampling to the smallest size that still covers {@code targetSize}
+     * on the longer edge instead of at full resolution.
+     */
+    public static BufferedImage readImage(InputStreamSource image, int targetSize, long maxPixels) throws IOException {
+        try (InputStream input = image.getInputStream();
+             ImageInputStream imageInput = ImageIO.createImageInputStream(input)) {
+            ImageReader reader = getImageReader(imageInput);
+            try {
+                reader.setInput(imageInput, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                verifyPixels(width, height, maxPixels);
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, Math.max(width, height) / targetSize);
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Reads the format and the dimensions from the header without decoding the image, so an upload
+     * can be validated with only its first bytes. Only JPEG and PNG images are accepted.
+     */
+    public static ImageHeader readImageHeader(InputStreamSource image, long maxPixels) throws IOException {
+        try (InputStream input = image.getInputStream();
+             ImageInputStream imageInput = ImageIO.createImageInputStream(input)) {
+            ImageReader reader = getImageReader(imageInput);
+            try {
+                reader.setInput(imageInput, true, true);
+                String contentType = reader.getOriginatingProvider().getMIMETypes()[0];
+                isImage(contentType);
+                ImageHeader header = new ImageHeader(contentType, reader.getWidth(0), reader.getHeight(0));
+                verifyPixels(header.width(), header.height(), maxPixels);
+                return header;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
 
-    public static InputStream compressImage(MultipartFile image) throws IOException {
-        BufferedImage originalImage = ImageIO.read(image.getInputStream());
-        BufferedImage compressedImage = Scalr.resize(
-                originalImage,
-                Scalr.Method.BALANCED,
-                Scalr.Mode.AUTOMATIC,
-                (int) (originalImage.getWidth()/IMAGE_RESIZE_RATIO),
-                (int) (originalImage.getHeight()/IMAGE_RESIZE_RATIO));
-        ByteArrayOutputStream os = new ByteArrayOutputStream();
-        ImageIO.write(compressedImage, image.getContentType().split("/")[1], os);
-        return new ByteArrayInputStream(os.toByteArray());
+    private static ImageReader getImageReader(ImageInputStream imageInput) {
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(imageInput);
+        if (!readers.hasNext()) {
+            throw new IncorrectFileFormatException("File format must be JPEG or PNG");
+        }
+        return readers.next();
+    }
+
+    private static void verifyPixels(int width, int height, long maxPixels) {
+        if ((long) width * height > maxPixels) {
+            throw new ImageTooLargeException(
+                    String.format("Image must not be larger than %d pixels", maxPixels));
+        }
+    }
+
+    /**
+     * Scales the image down to fit {@code maxSize} on the longer edge, smaller images are kept as they are.
+     * Smaller variants are meant to be resized from the previous, larger one, so the full-size bitmap
+     * is scanned only once per upload.
+     */
+    public static BufferedImage resizeImage(BufferedImage image, int maxSize) {
+        if (Math.max(image.getWidth(), image.getHeight()) <= maxSize) {
+            return image;
+        }
+        return Scalr.resize(image, Scalr.Method.BALANCED, Scalr.Mode.AUTOMATIC, maxSize);
     }
 
     public static String getFileExtension(String fileName) {
@@ -42,14 +109,21 @@ public class ImageUtils {
     }
 
     public static void isImage(MultipartFile file) {
+        isImage(file.getContentType());
+    }
+
+    public static void isImage(String contentType) {
         if(!Arrays.asList(
                 IMAGE_JPEG.getMimeType(),
                 IMAGE_PNG.getMimeType()
-        ).contains(file.getContentType())){
+        ).contains(contentType)){
             throw new IncorrectFileFormatException("File format must be JPEG or PNG");
         }
     }
 
+    public record ImageHeader(String contentType, int width, int height) {
+    }
+
     public static void isFileEmpty(MultipartFile file) {
         if(file.isEmpty()){
             throw new EmptyFileException("File must not be empty");
@@ -0,0 +1,5 @@
+CREATE TABLE IF NOT EXISTS stored_object
+(
+    object_key VARCHAR(255) PRIMARY KEY,
+    ref_count  INTEGER NOT NULL
+);
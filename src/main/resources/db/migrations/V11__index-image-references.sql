@@ -0,0 +1,3 @@
+CREATE INDEX IF NOT EXISTS idx_pet_photos_photos ON pet_photos (photos);
+
+CREATE INDEX IF NOT EXISTS idx_users_avatar ON users (avatar);
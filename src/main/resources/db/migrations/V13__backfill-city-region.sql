@@ -0,0 +1,20 @@
+-- V9 added city.region_id without filling it. The only record of which region a city belongs
+-- to is the region users and pets chose together with it, so every city gets the region it was
+-- most often paired with. Cities nobody referenced stay NULL and have to be assigned by hand,
+-- see "City regions" in README.md; until then the cities-by-region endpoints answer 503.
+UPDATE city c
+SET region_id = pairs.region_id
+FROM (SELECT DISTINCT ON (city_id) city_id, region_id
+      FROM (SELECT city_id, region_id
+            FROM users
+            WHERE city_id IS NOT NULL
+              AND region_id IS NOT NULL
+            UNION ALL
+            SELECT city_id, region_id
+            FROM pet
+            WHERE city_id IS NOT NULL
+              AND region_id IS NOT NULL) refs
+      GROUP BY city_id, region_id
+      ORDER BY city_id, COUNT(*) DESC, region_id) pairs
+WHERE c.id = pairs.city_id
+  AND c.region_id IS NULL;
@@ -0,0 +1,9 @@
+-- A counter row used to be inserted before its image was uploaded, and a concurrent upload of
+-- the same image skipped its own upload as soon as it found the row. Rows now start unstored and
+-- are marked once every variant is uploaded. Existing rows count as stored: an upload that failed
+-- released its reference, and the sweeper removes whatever it left behind.
+ALTER TABLE stored_object
+    ADD COLUMN IF NOT EXISTS stored BOOLEAN NOT NULL DEFAULT TRUE;
+
+ALTER TABLE stored_object
+    ALTER COLUMN stored DROP DEFAULT;
@@ -0,0 +1,7 @@
+-- A rotated refresh token presented again within the reuse grace period used to be rotated again
+-- every time. It now gets a single retry, recorded here; the next presentation revokes the user.
+ALTER TABLE refresh_tokens
+    ADD COLUMN IF NOT EXISTS retried BOOLEAN NOT NULL DEFAULT FALSE;
+
+ALTER TABLE refresh_tokens
+    ALTER COLUMN retried DROP DEFAULT;
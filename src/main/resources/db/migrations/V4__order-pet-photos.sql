@@ -0,0 +1,14 @@
+ALTER TABLE pet_photos
+    ADD COLUMN photo_order INTEGER;
+
+UPDATE pet_photos
+SET photo_order = ordered.position
+FROM (
+    SELECT ctid, ROW_NUMBER() OVER (PARTITION BY pet_id ORDER BY ctid) - 1 AS position
+    FROM pet_photos
+) ordered
+WHERE pet_photos.ctid = ordered.ctid;
+
+ALTER TABLE pet_photos
+    ALTER COLUMN photo_order SET NOT NULL,
+    ADD PRIMARY KEY (pet_id, photo_order);
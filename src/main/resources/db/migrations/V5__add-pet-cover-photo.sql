@@ -0,0 +1,10 @@
+ALTER TABLE pet
+    ADD COLUMN cover_photo VARCHAR(255);
+
+UPDATE pet
+SET cover_photo = (
+    SELECT pp.photos
+    FROM pet_photos pp
+    WHERE pp.pet_id = pet.id
+      AND pp.photo_order = 0
+);
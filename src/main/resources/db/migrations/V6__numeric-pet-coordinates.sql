@@ -0,0 +1,13 @@
+ALTER TABLE pet
+    ALTER COLUMN latitude TYPE DOUBLE PRECISION
+        USING REPLACE(TRIM(latitude), ',', '.')::DOUBLE PRECISION,
+    ALTER COLUMN longitude TYPE DOUBLE PRECISION
+        USING REPLACE(TRIM(longitude), ',', '.')::DOUBLE PRECISION;
+
+ALTER TABLE pet
+    ADD CONSTRAINT chk_pet_latitude
+        CHECK (latitude BETWEEN -90 AND 90),
+    ADD CONSTRAINT chk_pet_longitude
+        CHECK (longitude BETWEEN -180 AND 180);
+
+CREATE INDEX IF NOT EXISTS idx_pet_coordinates ON pet (latitude, longitude);
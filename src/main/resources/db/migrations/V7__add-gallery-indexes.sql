@@ -0,0 +1,7 @@
+CREATE INDEX IF NOT EXISTS idx_pet_status_id ON pet (status, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_pet_author_id ON pet (author_id, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_users_region_city ON users (region_id, city_id);
+
+CREATE INDEX IF NOT EXISTS idx_users_city ON users (city_id);
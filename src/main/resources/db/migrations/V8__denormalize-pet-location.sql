@@ -0,0 +1,13 @@
+ALTER TABLE pet
+    ADD COLUMN IF NOT EXISTS region_id BIGINT REFERENCES region (id),
+    ADD COLUMN IF NOT EXISTS city_id BIGINT REFERENCES city (id);
+
+UPDATE pet p
+SET region_id = u.region_id,
+    city_id   = u.city_id
+FROM users u
+WHERE u.id = p.author_id;
+
+CREATE INDEX IF NOT EXISTS idx_pet_region_id ON pet (region_id, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_pet_city_id ON pet (city_id, id DESC);
@@ -0,0 +1,4 @@
+ALTER TABLE city
+    ADD COLUMN IF NOT EXISTS region_id BIGINT REFERENCES region (id);
+
+CREATE INDEX IF NOT EXISTS idx_city_region_id ON city (region_id);
@@ -2,7 +2,9 @@ package com.sniff.auth;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sniff.auth.controller.AuthController;
+import com.sniff.auth.exception.InvalidRefreshTokenException;
 import com.sniff.auth.model.AuthResponse;
+import com.sniff.auth.model.RefreshTokenRequest;
 import com.sniff.auth.service.AuthService;
 import com.sniff.jwt.JwtService;
 import com.sniff.user.exception.InvalidPhoneException;
@@ -29,6 +31,7 @@ import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -68,7 +71,7 @@ public class AuthControllerTest {
     @DisplayName("[Sprint-1] Sign up successfully")
     public void signUpSuccessfully() throws Exception {
         UserSignUp userSignup = generateSignupRequest();
-        AuthResponse authResponse = new AuthResponse("token");
+        AuthResponse authResponse = new AuthResponse("token", "refresh-token");
 
         given(jwtService.generateToken(anyLong(),anyString(), any())).willReturn("token");
         given(authService.signUp(any())).willReturn(authResponse);
@@ -149,7 +152,7 @@ public class AuthControllerTest {
     @Test
     @DisplayName("[Sprint-1] Sign in successfully")
     public void signInSuccessfully() throws Exception {
-        AuthResponse authResponse = new AuthResponse("token");
+        AuthResponse authResponse = new AuthResponse("token", "refresh-token");
 
         given(jwtService.generateToken(anyLong(), anyString(), any())).willReturn("token");
         given(authService.signIn(any())).willReturn(authResponse);
@@ -208,6 +211,66 @@ public class AuthControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.message").exists());
     }
 
+    @Test
+    @DisplayName("[Sprint-4] Refresh session successfully")
+    public void refreshSuccessfully() throws Exception {
+        given(authService.refresh(any())).willReturn(new AuthResponse("token", "next-refresh-token"));
+
+        ResultActions response = mockMvc
+                .perform(MockMvcRequestBuilders.post("/api/v1/auth/refresh")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshTokenRequest("refresh-token"))));
+
+        response
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.jwtToken").value("token"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.refreshToken").value("next-refresh-token"));
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Try to refresh session with used refresh token")
+    public void refreshWithInvalidToken() throws Exception {
+        given(authService.refresh(any())).willThrow(new InvalidRefreshTokenException("Invalid refresh token"));
+
+        ResultActions response = mockMvc
+                .perform(MockMvcRequestBuilders.post("/api/v1/auth/refresh")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshTokenRequest("refresh-token"))));
+
+        response
+                .andDo(print())
+                .andExpect(status().isUnauthorized())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.message").value("Invalid refresh token"));
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Try to refresh session without refresh token")
+    public void refreshWithoutToken() throws Exception {
+        ResultActions response = mockMvc
+                .perform(MockMvcRequestBuilders.post("/api/v1/auth/refresh")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshTokenRequest(""))));
+
+        response
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Sign out successfully")
+    public void signOutSuccessfully() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/auth/signout")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshTokenRequest("refresh-token"))))
+                .andExpect(status().isNoContent());
+
+        verify(authService).signOut(any());
+    }
+
     private UserSignUp generateSignupRequest() {
         return UserSignUp.builder()
                 .firstname(user.getFirstname())
@@ -1,7 +1,9 @@
 package com.sniff.auth;
 
 import com.sniff.auth.model.AuthResponse;
+import com.sniff.auth.model.RefreshTokenRequest;
 import com.sniff.auth.service.AuthService;
+import com.sniff.auth.service.RefreshTokenService;
 import com.sniff.jwt.JwtService;
 import com.sniff.mapper.Mappers;
 import com.sniff.user.exception.InvalidPhoneException;
@@ -26,6 +28,9 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -41,6 +46,8 @@ public class AuthServiceTest {
     private AuthenticationManager authenticationManager;
     @Mock
     private JwtService jwtService;
+    @Mock
+    private RefreshTokenService refreshTokenService;
     @InjectMocks
     private AuthService authService;
 
@@ -141,6 +148,36 @@ public class AuthServiceTest {
         assertThrows(UserNotFoundException.class, () -> authService.signIn(userSignin));
     }
 
+    @Test
+    @DisplayName("[Sprint-4] Sign in issues a refresh token")
+    public void signInIssuesRefreshToken() {
+        when(userRepository.findByEmailIgnoreCase(any())).thenReturn(Optional.of(user));
+        when(jwtService.generateToken(anyLong(), anyString(), any())).thenReturn("token");
+        when(refreshTokenService.issue(user)).thenReturn("refresh-token");
+
+        UserSignIn userSignin = new UserSignIn(user.getEmail(), "qwerty123456789");
+        when(passwordEncoder.matches(userSignin.getPassword(), user.getPassword())).thenReturn(true);
+
+        AuthResponse authResponse = authService.signIn(userSignin);
+
+        assertThat(authResponse.getRefreshToken()).isEqualTo("refresh-token");
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Refresh session without checking the password")
+    public void refreshWithoutPasswordCheck() {
+        when(refreshTokenService.rotate("refresh-token")).thenReturn(user);
+        when(refreshTokenService.issue(user)).thenReturn("next-refresh-token");
+        when(jwtService.generateToken(user.getId(), user.getFirstname(), user.getRole())).thenReturn("token");
+
+        AuthResponse authResponse = authService.refresh(new RefreshTokenRequest("refresh-token"));
+
+        assertThat(authResponse.getJwtToken()).isEqualTo("token");
+        assertThat(authResponse.getRefreshToken()).isEqualTo("next-refresh-token");
+        verify(passwordEncoder, never()).matches(any(), any());
+        verifyNoInteractions(userRepository);
+    }
+
     private UserSignUp generateSignupRequest() {
         return UserSignUp.builder()
                 .firstname(user.getFirstname())
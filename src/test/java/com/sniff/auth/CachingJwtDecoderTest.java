@@ -0,0 +1,134 @@
+package com.sniff.auth;
+
+import com.sniff.jwt.CachingJwtDecoder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static java.time.temporal.ChronoUnit.MINUTES;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CachingJwtDecoderTest {
+    private static final Instant NOW = Instant.parse("2026-01-01T12:00:00Z");
+
+    @Mock
+    private JwtDecoder delegate;
+    @Mock
+    private Clock clock;
+
+    private CachingJwtDecoder underTest;
+
+    @BeforeEach
+    public void setUp() {
+        underTest = new CachingJwtDecoder(delegate, 2, clock);
+        lenient().when(clock.instant()).thenReturn(NOW);
+        lenient().when(delegate.decode(anyString()))
+                .thenAnswer(invocation -> jwt(invocation.getArgument(0), NOW.plus(60, MINUTES)));
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Repeated token is verified once")
+    public void repeatedTokenIsVerifiedOnce() {
+        Jwt first = underTest.decode("token");
+        Jwt second = underTest.decode("token");
+
+        assertThat(second).isSameAs(first);
+        verify(delegate, times(1)).decode("token");
+        assertThat(underTest.stats().hitCount()).isEqualTo(1);
+        assertThat(underTest.stats().missCount()).isEqualTo(1);
+        assertThat(underTest.stats().hitRate()).isEqualTo(0.5);
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Expired token is verified again")
+    public void expiredTokenIsVerifiedAgain() {
+        underTest.decode("token");
+        given(clock.instant()).willReturn(NOW.plus(60, MINUTES));
+
+        underTest.decode("token");
+
+        verify(delegate, times(2)).decode("token");
+        assertThat(underTest.stats().hitCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Rejected token is not cached")
+    public void rejectedTokenIsNotCached() {
+        given(delegate.decode("forged")).willThrow(new BadJwtException("Invalid signature"));
+
+        assertThatThrownBy(() -> underTest.decode("forged")).isInstanceOf(BadJwtException.class);
+        assertThatThrownBy(() -> underTest.decode("forged")).isInstanceOf(BadJwtException.class);
+
+        verify(delegate, times(2)).decode("forged");
+        assertThat(underTest.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Cache is bounded by its maximum size")
+    public void cacheIsBoundedByMaximumSize() {
+        underTest.decode("first");
+        underTest.decode("second");
+        underTest.decode("third");
+
+        assertThat(underTest.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Concurrent requests with the same token share the cached claims")
+    public void concurrentRequestsShareCachedClaims() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Jwt>> requests = Collections.nCopies(1_000, () -> underTest.decode("token"));
+            for (Future<Jwt> response : executor.invokeAll(requests)) {
+                assertThat(response.get().getTokenValue()).isEqualTo("token");
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(underTest.stats().requestCount()).isEqualTo(1_000);
+        assertThat(underTest.stats().missCount()).isLessThanOrEqualTo(8);
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Expired tokens are evicted")
+    public void expiredTokensAreEvicted() {
+        given(delegate.decode("short")).willReturn(jwt("short", NOW.plus(5, MINUTES)));
+        underTest.decode("short");
+        underTest.decode("long");
+        given(clock.instant()).willReturn(NOW.plus(10, MINUTES));
+
+        underTest.evictExpired();
+
+        assertThat(underTest.size()).isEqualTo(1);
+    }
+
+    private static Jwt jwt(String token, Instant expiresAt) {
+        return Jwt.withTokenValue(token)
+                .header("alg", "RS256")
+                .subject("1")
+                .issuedAt(NOW)
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
@@ -0,0 +1,138 @@
+package com.sniff.auth;
+
+import com.nimbusds.jwt.SignedJWT;
+import com.sniff.auth.controller.JwksController;
+import com.sniff.auth.role.Role;
+import com.sniff.config.SecurityConfig;
+import com.sniff.filestore.controller.FileStoreController;
+import com.sniff.filestore.model.response.ImageJob;
+import com.sniff.filestore.service.DirectUploadService;
+import com.sniff.filestore.service.FileStoreService;
+import com.sniff.filestore.service.ImageJobService;
+import com.sniff.jwt.JwtConfig;
+import com.sniff.jwt.JwtService;
+import com.sniff.jwt.handler.JwtAccessDeniedHandler;
+import com.sniff.jwt.handler.JwtAuthenticationEntryPoint;
+import com.sniff.jwt.handler.JwtInvalidTokenEntryPoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static com.sniff.filestore.enums.ImageJobState.PENDING;
+import static com.sniff.jwt.JwtConstants.INVALID_TOKEN_MESSAGE;
+import static java.time.temporal.ChronoUnit.MINUTES;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest({FileStoreController.class, JwksController.class})
+@Import({SecurityConfig.class, JwtConfig.class, JwtService.class, JwtAuthenticationEntryPoint.class,
+        JwtAccessDeniedHandler.class, JwtInvalidTokenEntryPoint.class})
+public class JwtAuthenticationTest {
+    @MockBean
+    private FileStoreService fileStoreService;
+    @MockBean
+    private ImageJobService imageJobService;
+    @MockBean
+    private DirectUploadService directUploadService;
+    @MockBean
+    private UserDetailsService userDetailsService;
+    @Autowired
+    private JwtDecoder jwtDecoder;
+
+    @Autowired
+    private JwtService jwtService;
+    @Autowired
+    private JwtEncoder jwtEncoder;
+    @Autowired
+    MockMvc mockMvc;
+
+    @TestConfiguration
+    static class DecoderSpyConfig {
+        @Bean
+        @Primary
+        JwtDecoder jwtDecoderSpy(@Qualifier("jwtDecoder") JwtDecoder jwtDecoder) {
+            return mock(JwtDecoder.class, delegatesTo(jwtDecoder));
+        }
+    }
+
+    @BeforeEach
+    public void setUp() {
+        clearInvocations(jwtDecoder);
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Bearer token is decoded once per request")
+    public void bearerTokenIsDecodedOncePerRequest() throws Exception {
+        UUID jobId = UUID.randomUUID();
+        given(imageJobService.getJob(jobId)).willReturn(new ImageJob(jobId, PENDING, null, null));
+        String token = jwtService.generateToken(1L, "Mark", Role.USER);
+
+        mockMvc.perform(get("/api/v1/images/jobs/{id}", jobId)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+
+        verify(jwtDecoder, times(1)).decode(token);
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Expired token is rejected")
+    public void expiredTokenIsRejected() throws Exception {
+        Instant issuedAt = Instant.now().minus(90, MINUTES);
+        String token = jwtEncoder.encode(JwtEncoderParameters.from(JwtClaimsSet.builder()
+                .issuedAt(issuedAt)
+                .expiresAt(issuedAt.plus(60, MINUTES))
+                .subject("1")
+                .build())).getTokenValue();
+
+        mockMvc.perform(get("/api/v1/images/jobs/{id}", UUID.randomUUID())
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.message").value(INVALID_TOKEN_MESSAGE));
+        verify(imageJobService, never()).getJob(any());
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Request without token needs to sign in")
+    public void requestWithoutTokenIsUnauthorized() throws Exception {
+        mockMvc.perform(get("/api/v1/images/jobs/{id}", UUID.randomUUID()))
+                .andExpect(status().isUnauthorized());
+        verify(jwtDecoder, never()).decode(anyString());
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Public keys are published without a token")
+    public void publicKeysArePublished() throws Exception {
+        String token = jwtService.generateToken(1L, "Mark", Role.USER);
+        String keyId = SignedJWT.parse(token).getHeader().getKeyID();
+
+        mockMvc.perform(get("/.well-known/jwks.json"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.keys[0].kid").value(keyId))
+                .andExpect(jsonPath("$.keys[0].n").exists())
+                .andExpect(jsonPath("$.keys[0].d").doesNotExist());
+    }
+}
@@ -0,0 +1,166 @@
+package com.sniff.auth;
+
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import com.sniff.jwt.JwtConfig;
+import com.sniff.jwt.JwtKeys;
+import com.sniff.jwt.KeyIdJwsKeySelector;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import java.io.InputStream;
+import java.security.KeyStore;
+import java.time.Instant;
+
+import static java.time.temporal.ChronoUnit.MINUTES;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class JwtKeysTest {
+    private static final char[] PASSWORD = "changeit".toCharArray();
+
+    @Test
+    @DisplayName("[Sprint-4] Keys are loaded from the key store by alias")
+    public void keysAreLoadedFromKeyStore() throws Exception {
+        JwtKeys keys = JwtKeys.load(keyStore(), PASSWORD, "sniff-2026-02", "RS256");
+
+        assertThat(keys.signingKey().getKeyID()).isEqualTo("sniff-2026-02");
+        assertThat(keys.signingKey().isPrivate()).isTrue();
+        assertThat(keys.key("sniff-2025-12").isPrivate()).isFalse();
+        assertThat(keys.publicKeys().getKeys())
+                .extracting(JWK::getKeyID)
+                .containsExactlyInAnyOrder("sniff-2025-12", "sniff-2026-01", "sniff-2026-02", "sniff-ec-2026-03");
+        assertThat(keys.publicKeys().getKeys()).noneMatch(JWK::isPrivate);
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Startup fails without a key store unless a temporary key is allowed")
+    public void startupFailsWithoutKeyStore() {
+        ApplicationContextRunner runner = new ApplicationContextRunner()
+                .withUserConfiguration(JwtConfig.class)
+                .withPropertyValues("jwt.cache.max-size=10", "jwt.algorithm=RS256", "jwt.keystore.location=",
+                        "jwt.keystore.type=PKCS12", "jwt.keystore.password=", "jwt.keystore.signing-key=");
+
+        runner.withPropertyValues("jwt.keystore.allow-temporary-key=false")
+                .run(context -> assertThat(context).hasFailed());
+        runner.withPropertyValues("jwt.keystore.allow-temporary-key=true")
+                .run(context -> assertThat(context).hasSingleBean(JwtKeys.class));
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Signing key needs a private key")
+    public void signingKeyNeedsPrivateKey() throws Exception {
+        KeyStore keyStore = keyStore();
+
+        assertThatThrownBy(() -> JwtKeys.load(keyStore, PASSWORD, "sniff-2025-12", "RS256"))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> JwtKeys.load(keyStore, PASSWORD, "unknown", "RS256"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Tokens of the previous signing key stay valid after rotation")
+    public void tokensOfPreviousKeyStayValidAfterRotation() throws Exception {
+        KeyStore keyStore = keyStore();
+        JwtKeys before = JwtKeys.load(keyStore, PASSWORD, "sniff-2026-01", "RS256");
+        JwtKeys after = JwtKeys.load(keyStore, PASSWORD, "sniff-2026-02", "RS256");
+        String oldToken = encode(before);
+
+        JwtDecoder decoder = decoder(after);
+
+        assertThat(decoder.decode(oldToken).getHeaders()).containsEntry("kid", "sniff-2026-01");
+        assertThat(decoder.decode(encode(after)).getHeaders()).containsEntry("kid", "sniff-2026-02");
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Token with an unknown kid is rejected")
+    public void tokenWithUnknownKeyIsRejected() throws Exception {
+        JwtKeys keys = JwtKeys.load(keyStore(), PASSWORD, "sniff-2026-02", "RS256");
+
+        String token = encode(JwtKeys.generate("RS256"));
+
+        assertThatThrownBy(() -> decoder(keys).decode(token)).isInstanceOf(BadJwtException.class);
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Tokens are signed with ES256 by a P-256 key")
+    public void tokensAreSignedWithEs256() throws Exception {
+        JwtKeys keys = JwtKeys.load(keyStore(), PASSWORD, "sniff-ec-2026-03", "ES256");
+
+        Jwt jwt = decoder(keys).decode(encode(keys));
+
+        assertThat(jwt.getHeaders().get("alg")).hasToString("ES256");
+        assertThat(jwt.getSubject()).isEqualTo("1");
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Signing algorithm must match the signing key")
+    public void signingAlgorithmMustMatchKey() throws Exception {
+        KeyStore keyStore = keyStore();
+
+        assertThatThrownBy(() -> JwtKeys.load(keyStore, PASSWORD, "sniff-2026-02", "ES256"))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> JwtKeys.load(keyStore, PASSWORD, "sniff-ec-2026-03", "RS256"))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> JwtKeys.generate("EdDSA"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("EdDSA");
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Token is rejected when its algorithm does not match its key")
+    public void tokenWithForeignAlgorithmIsRejected() throws Exception {
+        JwtKeys keys = JwtKeys.load(keyStore(), PASSWORD, "sniff-2026-02", "RS256");
+        ECKey impostor = new ECKeyGenerator(Curve.P_256).keyID("sniff-2026-02").generate();
+
+        String token = encode(impostor, SignatureAlgorithm.ES256);
+
+        assertThatThrownBy(() -> decoder(keys).decode(token)).isInstanceOf(BadJwtException.class);
+    }
+
+    private static String encode(JwtKeys keys) {
+        return encode(keys.signingKey(), keys.signingAlgorithm());
+    }
+
+    private static String encode(JWK key, SignatureAlgorithm algorithm) {
+        Instant now = Instant.now();
+        return new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(key)))
+                .encode(JwtEncoderParameters.from(JwsHeader.with(algorithm).build(), JwtClaimsSet.builder()
+                        .subject("1")
+                        .issuedAt(now)
+                        .expiresAt(now.plus(60, MINUTES))
+                        .build()))
+                .getTokenValue();
+    }
+
+    private static JwtDecoder decoder(JwtKeys keys) {
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new KeyIdJwsKeySelector(keys));
+        return new NimbusJwtDecoder(jwtProcessor);
+    }
+
+    private static KeyStore keyStore() throws Exception {
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        try (InputStream in = new ClassPathResource("jwt-keys.p12").getInputStream()) {
+            keyStore.load(in, PASSWORD);
+        }
+        return keyStore;
+    }
+}
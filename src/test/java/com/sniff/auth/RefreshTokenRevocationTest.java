@@ -0,0 +1,82 @@
+package com.sniff.auth;
+
+import com.sniff.auth.exception.InvalidRefreshTokenException;
+import com.sniff.auth.model.AuthResponse;
+import com.sniff.auth.model.RefreshTokenRequest;
+import com.sniff.auth.repository.RefreshTokenRepository;
+import com.sniff.auth.role.Role;
+import com.sniff.auth.service.AuthService;
+import com.sniff.auth.service.RefreshTokenService;
+import com.sniff.jwt.JwtService;
+import com.sniff.mapper.Mappers;
+import com.sniff.user.model.entity.User;
+import com.sniff.user.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Runs the refresh through the real service transactions instead of the test transaction,
+ * so the revocation has to survive {@link InvalidRefreshTokenException} leaving the service.
+ */
+@DataJpaTest(properties = "jwt.refresh-token.reuse-grace-period=PT0S")
+@Import({AuthService.class, RefreshTokenService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class RefreshTokenRevocationTest {
+    @MockBean
+    private Mappers mappers;
+    @MockBean
+    private JwtService jwtService;
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private AuthService authService;
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    public void tearDown() {
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Revocation on refresh token reuse is committed")
+    public void revocationOnReuseIsCommitted() {
+        User user = userRepository.save(User.builder()
+                .firstname("Mark")
+                .lastname("Himonov")
+                .email("mark@gmail.com")
+                .phone("+380111111111")
+                .password("password")
+                .role(Role.USER)
+                .build());
+        String token = refreshTokenService.issue(user);
+        refreshTokenService.issue(user);
+
+        AuthResponse refreshed = authService.refresh(new RefreshTokenRequest(token));
+        assertThat(refreshTokenRepository.count()).isEqualTo(3);
+
+        assertThrows(InvalidRefreshTokenException.class,
+                () -> authService.refresh(new RefreshTokenRequest(token)));
+
+        assertThat(refreshTokenRepository.count()).isZero();
+        assertThrows(InvalidRefreshTokenException.class,
+                () -> authService.refresh(new RefreshTokenRequest(refreshed.getRefreshToken())));
+    }
+}
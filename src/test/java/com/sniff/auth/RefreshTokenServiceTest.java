@@ -0,0 +1,177 @@
+package com.sniff.auth;
+
+import com.sniff.auth.exception.InvalidRefreshTokenException;
+import com.sniff.auth.model.entity.RefreshToken;
+import com.sniff.auth.repository.RefreshTokenRepository;
+import com.sniff.auth.service.RefreshTokenService;
+import com.sniff.user.model.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RefreshTokenServiceTest {
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private RefreshTokenService refreshTokenService;
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, Duration.ofDays(30), Duration.ofSeconds(30));
+        user = User.builder()
+                .id(1L)
+                .firstname("Mark")
+                .build();
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Refresh token is stored only as a hash")
+    public void refreshTokenIsStoredAsHash() {
+        String token = refreshTokenService.issue(user);
+
+        RefreshToken stored = savedToken();
+        assertThat(token).hasSize(43);
+        assertThat(stored.getTokenHash()).hasSize(64).doesNotContain(token);
+        assertThat(stored.getUser()).isSameAs(user);
+        assertThat(stored.getExpiresAt()).isAfter(Instant.now().plus(Duration.ofDays(29)));
+        assertThat(refreshTokenService.issue(user)).isNotEqualTo(token);
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Refresh token is rotated on use")
+    public void refreshTokenIsRotated() {
+        String token = refreshTokenService.issue(user);
+        RefreshToken stored = savedToken();
+        stored.setId(7L);
+        given(refreshTokenRepository.findByTokenHash(stored.getTokenHash())).willReturn(Optional.of(stored));
+        given(refreshTokenRepository.markRotated(eq(7L), any())).willReturn(1);
+
+        User rotatedUser = refreshTokenService.rotate(token);
+
+        assertThat(rotatedUser).isSameAs(user);
+        verify(refreshTokenRepository, never()).deleteAllByUserId(any());
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Reused refresh token revokes all tokens of the user")
+    public void reusedRefreshTokenRevokesAll() {
+        String token = refreshTokenService.issue(user);
+        RefreshToken stored = savedToken();
+        stored.setId(7L);
+        stored.setRotatedAt(Instant.now().minus(Duration.ofMinutes(1)));
+        given(refreshTokenRepository.findByTokenHash(stored.getTokenHash())).willReturn(Optional.of(stored));
+
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(token));
+
+        verify(refreshTokenRepository).deleteAllByUserId(user.getId());
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Refresh token retried within the grace period is rotated again")
+    public void retriedRefreshTokenIsRotatedAgain() {
+        String token = refreshTokenService.issue(user);
+        RefreshToken stored = savedToken();
+        stored.setId(7L);
+        stored.setRotatedAt(Instant.now().minusSeconds(5));
+        given(refreshTokenRepository.findByTokenHash(stored.getTokenHash())).willReturn(Optional.of(stored));
+        given(refreshTokenRepository.markRetried(7L)).willReturn(1);
+
+        User rotatedUser = refreshTokenService.rotate(token);
+
+        assertThat(rotatedUser).isSameAs(user);
+        verify(refreshTokenRepository, never()).markRotated(any(), any());
+        verify(refreshTokenRepository, never()).deleteAllByUserId(any());
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Refresh token presented a third time within the grace period revokes all tokens")
+    public void refreshTokenRetriedTwiceRevokesAll() {
+        String token = refreshTokenService.issue(user);
+        RefreshToken stored = savedToken();
+        stored.setId(7L);
+        given(refreshTokenRepository.findByTokenHash(stored.getTokenHash())).willReturn(Optional.of(stored));
+        given(refreshTokenRepository.markRotated(eq(7L), any())).willAnswer(invocation -> {
+            stored.setRotatedAt(invocation.getArgument(1));
+            return 1;
+        });
+        given(refreshTokenRepository.markRetried(7L)).willReturn(1, 0);
+
+        assertThat(refreshTokenService.rotate(token)).isSameAs(user);
+        assertThat(refreshTokenService.rotate(token)).isSameAs(user);
+        verify(refreshTokenRepository, never()).deleteAllByUserId(any());
+
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(token));
+
+        verify(refreshTokenRepository).deleteAllByUserId(user.getId());
+        verify(refreshTokenRepository, times(2)).markRetried(7L);
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Concurrently used refresh token is rotated again within the grace period")
+    public void concurrentlyUsedRefreshTokenIsRotatedAgain() {
+        String token = refreshTokenService.issue(user);
+        RefreshToken stored = savedToken();
+        stored.setId(7L);
+        given(refreshTokenRepository.findByTokenHash(stored.getTokenHash())).willReturn(Optional.of(stored));
+        given(refreshTokenRepository.markRotated(eq(7L), any())).willReturn(0);
+        given(refreshTokenRepository.markRetried(7L)).willReturn(1);
+
+        assertThat(refreshTokenService.rotate(token)).isSameAs(user);
+        verify(refreshTokenRepository, never()).deleteAllByUserId(any());
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Concurrently used refresh token revokes all tokens without a grace period")
+    public void concurrentlyUsedRefreshTokenRevokesAllWithoutGracePeriod() {
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, Duration.ofDays(30), Duration.ZERO);
+        String token = refreshTokenService.issue(user);
+        RefreshToken stored = savedToken();
+        stored.setId(7L);
+        given(refreshTokenRepository.findByTokenHash(stored.getTokenHash())).willReturn(Optional.of(stored));
+        given(refreshTokenRepository.markRotated(eq(7L), any())).willReturn(0);
+
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(token));
+
+        verify(refreshTokenRepository).deleteAllByUserId(user.getId());
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Try to refresh with expired or unknown refresh token")
+    public void expiredOrUnknownRefreshToken() {
+        String token = refreshTokenService.issue(user);
+        RefreshToken stored = savedToken();
+        stored.setExpiresAt(Instant.now().minusSeconds(1));
+        given(refreshTokenRepository.findByTokenHash(anyString())).willReturn(Optional.empty());
+        given(refreshTokenRepository.findByTokenHash(stored.getTokenHash())).willReturn(Optional.of(stored));
+
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(token));
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate("unknown"));
+
+        verify(refreshTokenRepository, never()).markRotated(any(), any());
+        verify(refreshTokenRepository, never()).deleteAllByUserId(any());
+    }
+
+    private RefreshToken savedToken() {
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository, atLeastOnce()).save(captor.capture());
+        return captor.getValue();
+    }
+}
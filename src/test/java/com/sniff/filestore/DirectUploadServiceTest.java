@@ -0,0 +1,175 @@
+package com.sniff.filestore;
+
+import com.sniff.auth.service.AuthVerifyService;
+import com.sniff.filestore.exception.ImageTooLargeException;
+import com.sniff.filestore.exception.IncorrectFileFormatException;
+import com.sniff.filestore.exception.UploadNotFoundException;
+import com.sniff.filestore.model.request.DirectUploadCompletion;
+import com.sniff.filestore.model.request.DirectUploadRequest;
+import com.sniff.filestore.model.response.DirectUpload;
+import com.sniff.filestore.service.DirectUploadService;
+import com.sniff.filestore.service.FileStoreService;
+import com.sniff.filestore.service.ImageJobService;
+import com.sniff.filestore.storage.LocalObjectStorage;
+import com.sniff.filestore.upload.ImageSource;
+import com.sniff.filestore.upload.UploadBuffer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class DirectUploadServiceTest {
+    @TempDir
+    private Path root;
+    @Mock
+    private FileStoreService fileStoreService;
+    @Mock
+    private ImageJobService imageJobService;
+    @Mock
+    private AuthVerifyService authVerifyService;
+
+    private LocalObjectStorage storage;
+    private DirectUploadService directUploadService;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        storage = new LocalObjectStorage(root, "http://localhost:8080/files");
+        storage.createRoot();
+        directUploadService = new DirectUploadService(storage, fileStoreService, imageJobService, authVerifyService);
+        ReflectionTestUtils.setField(directUploadService, "UPLOAD_EXPIRY", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(directUploadService, "MAX_UPLOAD_SIZE", DataSize.ofMegabytes(10));
+        ReflectionTestUtils.setField(directUploadService, "MAX_IMAGE_PIXELS", 40_000_000L);
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Presigned upload URLs are created for pet photos")
+    public void presignedUploadUrlsAreCreated() {
+        List<DirectUpload> uploads = directUploadService.createPetPhotosUpload(1L,
+                new DirectUploadRequest(List.of("image/jpeg", "image/png")));
+
+        verify(fileStoreService).verifyPetPhotosUpload(1L, 2);
+        assertThat(uploads).hasSize(2);
+        assertThat(uploads.get(0).getUrl())
+                .startsWith("http://localhost:8080/files/uploads/pet/1/" + uploads.get(0).getUploadId())
+                .contains("signature=");
+        assertThat(uploads.get(1).getContentType()).isEqualTo("image/png");
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Try to create upload URL for unsupported format")
+    public void createUploadForUnsupportedFormat() {
+        assertThrows(IncorrectFileFormatException.class, () -> directUploadService.createUserAvatarUpload(1L,
+                new DirectUploadRequest(List.of("image/gif"))));
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Completed upload is checked and submitted for processing")
+    @SuppressWarnings("unchecked")
+    public void completedUploadIsSubmitted() throws IOException {
+        UUID uploadId = UUID.randomUUID();
+        String key = "uploads/pet/1/" + uploadId;
+        storage.put(key, png(), "image/png");
+
+        directUploadService.completePetPhotosUpload(1L, new DirectUploadCompletion(List.of(uploadId)));
+
+        ArgumentCaptor<List<ImageSource>> images = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<Runnable> cleanup = ArgumentCaptor.forClass(Runnable.class);
+        verify(imageJobService).submitPetPhotos(eq(1L), images.capture(), cleanup.capture());
+        assertThat(images.getValue()).singleElement()
+                .satisfies(image -> assertThat(image.contentType()).isEqualTo("image/png"));
+
+        cleanup.getValue().run();
+        assertThat(storage.exists(key)).isFalse();
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Try to complete missing or invalid upload")
+    public void completeMissingOrInvalidUpload() throws IOException {
+        UUID missing = UUID.randomUUID();
+        UUID invalid = UUID.randomUUID();
+        UploadBuffer text = new UploadBuffer(16);
+        text.write("not an image".getBytes());
+        storage.put("uploads/user/1/" + invalid, text, "image/png");
+
+        assertThrows(UploadNotFoundException.class, () -> directUploadService.completeUserAvatarUpload(1L,
+                new DirectUploadCompletion(List.of(missing))));
+        assertThrows(IncorrectFileFormatException.class, () -> directUploadService.completeUserAvatarUpload(1L,
+                new DirectUploadCompletion(List.of(invalid))));
+        verify(imageJobService, never()).submitUserAvatar(any(), any(ImageSource.class), any());
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Oversized upload is deleted when completed")
+    public void oversizedUploadIsDeleted() throws IOException {
+        ReflectionTestUtils.setField(directUploadService, "MAX_UPLOAD_SIZE", DataSize.ofBytes(16));
+        UUID uploadId = UUID.randomUUID();
+        String key = "uploads/user/1/" + uploadId;
+        storage.put(key, png(), "image/png");
+
+        assertThrows(ImageTooLargeException.class, () -> directUploadService.completeUserAvatarUpload(1L,
+                new DirectUploadCompletion(List.of(uploadId))));
+        assertThat(storage.exists(key)).isFalse();
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Header of a large upload is read from its first bytes")
+    public void headerOfLargeUploadIsReadFromFirstBytes() throws IOException {
+        LocalObjectStorage rangedStorage = spy(storage);
+        directUploadService = new DirectUploadService(rangedStorage, fileStoreService, imageJobService, authVerifyService);
+        ReflectionTestUtils.setField(directUploadService, "MAX_UPLOAD_SIZE", DataSize.ofMegabytes(10));
+        ReflectionTestUtils.setField(directUploadService, "MAX_IMAGE_PIXELS", 40_000_000L);
+        UUID uploadId = UUID.randomUUID();
+        String key = "uploads/user/1/" + uploadId;
+        storage.put(key, noisePng(), "image/png");
+
+        directUploadService.completeUserAvatarUpload(1L, new DirectUploadCompletion(List.of(uploadId)));
+
+        verify(rangedStorage).get(key, 64 * 1024);
+        verify(rangedStorage, never()).get(key);
+        verify(imageJobService).submitUserAvatar(eq(1L), any(ImageSource.class), any());
+    }
+
+    private static UploadBuffer noisePng() throws IOException {
+        BufferedImage image = new BufferedImage(400, 400, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        for (int x = 0; x < image.getWidth(); x++) {
+            for (int y = 0; y < image.getHeight(); y++) {
+                image.setRGB(x, y, random.nextInt());
+            }
+        }
+        UploadBuffer buffer = new UploadBuffer(1024);
+        ImageIO.write(image, "png", buffer);
+        assertThat(buffer.size()).isGreaterThan(64 * 1024);
+        return buffer;
+    }
+
+    private static UploadBuffer png() throws IOException {
+        UploadBuffer buffer = new UploadBuffer(1024);
+        ImageIO.write(new BufferedImage(40, 30, BufferedImage.TYPE_INT_RGB), "png", buffer);
+        return buffer;
+    }
+}
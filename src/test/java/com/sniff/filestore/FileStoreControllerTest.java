@@ -0,0 +1,92 @@
+package com.sniff.filestore;
+
+import com.sniff.filestore.controller.FileStoreController;
+import com.sniff.filestore.exception.ImageJobNotFoundException;
+import com.sniff.filestore.model.response.ImageJob;
+import com.sniff.filestore.service.DirectUploadService;
+import com.sniff.filestore.service.FileStoreService;
+import com.sniff.filestore.service.ImageJobService;
+import com.sniff.jwt.JwtService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.UUID;
+
+import static com.sniff.filestore.enums.ImageJobState.PENDING;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureWebMvc
+@AutoConfigureMockMvc(addFilters = false)
+@WebMvcTest(FileStoreController.class)
+public class FileStoreControllerTest {
+    @MockBean
+    private FileStoreService fileStoreService;
+    @MockBean
+    private ImageJobService imageJobService;
+    @MockBean
+    private DirectUploadService directUploadService;
+    @MockBean
+    private JwtService jwtService;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    @DisplayName("[Sprint-4] Asynchronous pet photos upload is accepted")
+    public void asyncPetPhotosUploadIsAccepted() throws Exception {
+        UUID jobId = UUID.randomUUID();
+        given(imageJobService.submitPetPhotos(eq(1L), any())).willReturn(new ImageJob(jobId, PENDING, null, null));
+
+        mockMvc.perform(MockMvcRequestBuilders.multipart("/api/v1/images/pets/{id}/upload/async", 1L)
+                        .file(new MockMultipartFile("images", "photo.png", "image/png", new byte[] { 1 })))
+                .andExpect(status().isAccepted())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.id").value(jobId.toString()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.state").value("PENDING"));
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Completed direct upload is accepted for processing")
+    public void completedDirectUploadIsAccepted() throws Exception {
+        UUID jobId = UUID.randomUUID();
+        given(directUploadService.completePetPhotosUpload(eq(1L), any()))
+                .willReturn(new ImageJob(jobId, PENDING, null, null));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/images/pets/{id}/upload/direct/complete", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"uploadIds\": [\"" + UUID.randomUUID() + "\"]}"))
+                .andExpect(status().isAccepted())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.id").value(jobId.toString()));
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Try to complete direct upload without upload ids")
+    public void completeDirectUploadWithoutUploadIds() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/images/pets/{id}/upload/direct/complete", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"uploadIds\": []}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Try to get non-existent image job")
+    public void getNonExistentImageJob() throws Exception {
+        UUID jobId = UUID.randomUUID();
+        given(imageJobService.getJob(jobId)).willThrow(new ImageJobNotFoundException("Image job not found"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/images/jobs/{id}", jobId))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,364 @@
+package com.sniff.filestore;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.sniff.auth.service.AuthVerifyService;
+import com.sniff.filestore.encoding.ImageEncodingPolicy;
+import com.sniff.filestore.encoding.JpegImageEncoder;
+import com.sniff.filestore.encoding.PngImageEncoder;
+import com.sniff.filestore.exception.FailedToUploadFileException;
+import com.sniff.filestore.model.entity.StoredObject;
+import com.sniff.filestore.repository.StoredObjectRepository;
+import com.sniff.filestore.service.FileStoreService;
+import com.sniff.filestore.storage.S3ObjectStorage;
+import com.sniff.filestore.upload.ImageSource;
+import com.sniff.filestore.upload.S3Uploader;
+import com.sniff.filestore.upload.UploadBuffer;
+import com.sniff.filestore.upload.UploadBufferPool;
+import com.sniff.pet.model.entity.Pet;
+import com.sniff.pet.repository.PetRepository;
+import com.sniff.user.model.entity.User;
+import com.sniff.user.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static com.sniff.filestore.enums.FileStoreOperation.PET;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class FileStoreServiceTest {
+    @Mock
+    private AmazonS3 s3;
+    @Mock
+    private AuthVerifyService authVerifyService;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private PetRepository petRepository;
+    @Mock
+    private StoredObjectRepository storedObjectRepository;
+    @Mock
+    private S3Uploader s3Uploader;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private ThreadPoolTaskExecutor imageUploadExecutor;
+    private FileStoreService fileStoreService;
+    private Pet pet;
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        imageUploadExecutor = new ThreadPoolTaskExecutor();
+        imageUploadExecutor.setCorePoolSize(3);
+        imageUploadExecutor.initialize();
+        fileStoreService = new FileStoreService(new S3ObjectStorage(s3, s3Uploader, "bucket"),
+                authVerifyService, userRepository, petRepository, storedObjectRepository,
+                new UploadBufferPool(3, DataSize.ofKilobytes(16), DataSize.ofMegabytes(1)), imageUploadExecutor, transactionTemplate, new ImageEncodingPolicy(
+                        List.of(new JpegImageEncoder(0.8f), new PngImageEncoder()), 1600, true, ""));
+        ReflectionTestUtils.setField(fileStoreService, "MAX_TOTAL_PET_PHOTOS", 5);
+        ReflectionTestUtils.setField(fileStoreService, "MAX_IMAGE_PIXELS", 40_000_000L);
+
+        pet = Pet.builder()
+                .id(1L)
+                .photos(new ArrayList<>(List.of("https://bucket.s3.amazonaws.com/pet/1/old.png")))
+                .build();
+        user = User.builder()
+                .id(1L)
+                .pets(new ArrayList<>(List.of(pet)))
+                .build();
+        given(petRepository.findById(pet.getId())).willReturn(Optional.of(pet));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        imageUploadExecutor.shutdown();
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Upload pet photos concurrently and replace the previous ones")
+    public void uploadPetPhotosSuccessfully() throws IOException {
+        givenPetPhotosUploadAllowed();
+        List<String> photos = fileStoreService.uploadPetPhotos(pet.getId(), images(3));
+
+        assertThat(photos).hasSize(3).doesNotHaveDuplicates()
+                .allMatch(url -> url.matches("https://bucket\\.s3\\.amazonaws\\.com/pet/[0-9a-f]{64}\\.jpg"));
+        assertThat(pet.getPhotos()).isEqualTo(photos);
+        assertThat(pet.getCoverPhoto()).isEqualTo(photos.get(0));
+        verify(s3Uploader, times(9)).upload(eq("bucket"), startsWith("pet/"), any(), eq("image/jpeg"));
+        verify(storedObjectRepository, times(3)).saveAndFlush(any(StoredObject.class));
+        photos.forEach(url -> verify(storedObjectRepository).markStored(url.substring(url.indexOf("pet/"))));
+        assertThat(deletedKeys()).containsExactlyInAnyOrder(
+                "pet/1/old.png", "pet/1/card/old.png", "pet/1/thumbnail/old.png");
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Failed photo upload removes the photos uploaded so far")
+    public void failedUploadRemovesUploadedPhotos() throws IOException {
+        givenPetPhotosUploadAllowed();
+        AtomicInteger uploads = new AtomicInteger();
+        willAnswer(invocation -> {
+            if (uploads.getAndIncrement() == 0) {
+                throw new IllegalStateException("Connection reset");
+            }
+            return null;
+        }).given(s3Uploader).upload(anyString(), anyString(), any(), anyString());
+
+        assertThrows(FailedToUploadFileException.class,
+                () -> fileStoreService.uploadPetPhotos(pet.getId(), images(3)));
+
+        assertThat(deletedKeys()).hasSize(9).allMatch(key -> key.startsWith("pet/")).doesNotContain("pet/1/old.png");
+        assertThat(pet.getPhotos()).containsExactly("https://bucket.s3.amazonaws.com/pet/1/old.png");
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Uploaded photo is stored in every size variant")
+    public void uploadedPhotoIsStoredInEverySizeVariant() throws IOException {
+        givenPetPhotosUploadAllowed();
+        Map<String, Integer> widths = new ConcurrentHashMap<>();
+        willAnswer(invocation -> {
+            UploadBuffer buffer = invocation.getArgument(2);
+            widths.put(invocation.getArgument(1), ImageIO.read(buffer.toInputStream()).getWidth());
+            return null;
+        }).given(s3Uploader).upload(anyString(), anyString(), any(), anyString());
+
+        String url = fileStoreService.uploadPetPhotos(pet.getId(), images(1, 800, 400)).get(0);
+
+        String imageName = url.substring(url.lastIndexOf('/') + 1);
+        assertThat(widths).containsOnly(
+                entry("pet/" + imageName, 800),
+                entry("pet/card/" + imageName, 600),
+                entry("pet/thumbnail/" + imageName, 200));
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Re-uploaded photo reuses the stored object")
+    public void reuploadedPhotoReusesStoredObject() throws IOException {
+        givenPetPhotosUploadAllowed();
+        given(storedObjectRepository.findForUpdate(anyString()))
+                .willAnswer(invocation -> Optional.of(new StoredObject(invocation.getArgument(0), 1, true)));
+
+        String url = fileStoreService.uploadPetPhotos(pet.getId(), images(1)).get(0);
+
+        String key = url.substring(url.indexOf("pet/"));
+        InOrder inOrder = inOrder(storedObjectRepository);
+        inOrder.verify(storedObjectRepository).findForUpdate(key);
+        inOrder.verify(storedObjectRepository).incrementRefCount(key);
+        verify(s3Uploader, never()).upload(anyString(), anyString(), any(), anyString());
+        verify(storedObjectRepository, never()).saveAndFlush(any());
+        verify(storedObjectRepository, never()).markStored(anyString());
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Concurrent first uploads of the same photo both count and both upload")
+    public void concurrentFirstUploadsOfSamePhotoBothCount() throws IOException {
+        givenPetPhotosUploadAllowed();
+        given(storedObjectRepository.findForUpdate(anyString()))
+                .willReturn(Optional.empty())
+                .willAnswer(invocation -> Optional.of(new StoredObject(invocation.getArgument(0), 1, false)));
+        given(storedObjectRepository.saveAndFlush(any(StoredObject.class)))
+                .willThrow(new DataIntegrityViolationException("duplicate key"));
+
+        String url = fileStoreService.uploadPetPhotos(pet.getId(), images(1)).get(0);
+
+        String key = url.substring(url.indexOf("pet/"));
+        verify(storedObjectRepository).incrementRefCount(key);
+        verify(s3Uploader, times(3)).upload(eq("bucket"), startsWith("pet/"), any(), eq("image/jpeg"));
+        verify(storedObjectRepository).markStored(key);
+        assertThat(pet.getPhotos()).containsExactly(url);
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Failed first upload does not lose the photo of a concurrent upload")
+    public void failedFirstUploadDoesNotLoseConcurrentUpload() throws Exception {
+        Pet otherPet = Pet.builder().id(2L).photos(new ArrayList<>()).build();
+        given(transactionTemplate.execute(any())).willAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        Map<String, StoredObject> rows = givenStoredObjectRows();
+        AtomicReference<Thread> firstUploader = new AtomicReference<>();
+        CountDownLatch firstRetained = new CountDownLatch(1);
+        CountDownLatch secondRetained = new CountDownLatch(1);
+        willAnswer(invocation -> {
+            firstUploader.compareAndSet(null, Thread.currentThread());
+            rows.put(invocation.<StoredObject>getArgument(0).getObjectKey(), invocation.getArgument(0));
+            firstRetained.countDown();
+            return invocation.getArgument(0);
+        }).given(storedObjectRepository).saveAndFlush(any(StoredObject.class));
+        willAnswer(invocation -> {
+            rows.get(invocation.<String>getArgument(0)).setRefCount(2);
+            secondRetained.countDown();
+            return 1;
+        }).given(storedObjectRepository).incrementRefCount(anyString());
+        willAnswer(invocation -> {
+            if (Thread.currentThread() == firstUploader.get()) {
+                secondRetained.await(5, TimeUnit.SECONDS);
+                throw new IllegalStateException("Connection reset");
+            }
+            return null;
+        }).given(s3Uploader).upload(anyString(), anyString(), any(), anyString());
+        List<ImageSource> image = images(1).stream().map(ImageSource::of).toList();
+
+        CompletableFuture<List<String>> first = CompletableFuture.supplyAsync(
+                () -> fileStoreService.storePetPhotos(otherPet.getId(), image));
+        assertThat(firstRetained.await(5, TimeUnit.SECONDS)).isTrue();
+        String url = fileStoreService.storePetPhotos(pet.getId(), image).get(0);
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+        assertThat(failure.getCause()).isInstanceOf(FailedToUploadFileException.class);
+        String key = url.substring(url.indexOf("pet/"));
+        assertThat(rows.get(key).getRefCount()).isEqualTo(1);
+        assertThat(rows.get(key).isStored()).isTrue();
+        assertThat(pet.getPhotos()).containsExactly(url);
+        assertThat(otherPet.getPhotos()).isEmpty();
+        assertThat(deletedKeys()).doesNotContain(key);
+        verify(s3Uploader, times(1 + 3)).upload(eq("bucket"), startsWith("pet/"), any(), eq("image/jpeg"));
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Photo used by another pet is kept when deleted")
+    public void photoUsedByAnotherPetIsKept() {
+        String shared = "https://bucket.s3.amazonaws.com/pet/shared.jpg";
+        String unused = "https://bucket.s3.amazonaws.com/pet/unused.jpg";
+        pet.setPhotos(new ArrayList<>(List.of(shared, unused)));
+        given(storedObjectRepository.decrementRefCount(anyString())).willReturn(1);
+        given(storedObjectRepository.deleteUnreferenced("pet/shared.jpg")).willReturn(0);
+        given(storedObjectRepository.deleteUnreferenced("pet/unused.jpg")).willReturn(1);
+
+        fileStoreService.deleteAllImagesByEntityId(pet.getId(), PET);
+
+        assertThat(deletedKeys()).containsExactlyInAnyOrder(
+                "pet/unused.jpg", "pet/card/unused.jpg", "pet/thumbnail/unused.jpg");
+        assertThat(pet.getPhotos()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Released photos are deleted in one batch after commit")
+    public void releasedPhotosAreDeletedAfterCommit() {
+        pet.setPhotos(new ArrayList<>(List.of(
+                "https://bucket.s3.amazonaws.com/pet/first.jpg",
+                "https://bucket.s3.amazonaws.com/pet/second.jpg")));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            fileStoreService.deleteAllImagesByEntityId(pet.getId(), PET);
+
+            verify(s3, never()).deleteObjects(any());
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(s3).deleteObjects(any());
+        assertThat(deletedKeys()).hasSize(6).contains("pet/first.jpg", "pet/thumbnail/second.jpg");
+    }
+
+    /**
+     * Lets the current user upload photos of the pet and runs transaction callbacks in place.
+     */
+    private void givenPetPhotosUploadAllowed() {
+        given(authVerifyService.getIdFromSubject()).willReturn(user.getId());
+        given(userRepository.findById(user.getId())).willReturn(Optional.of(user));
+        given(transactionTemplate.execute(any())).willAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        willAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).given(transactionTemplate).executeWithoutResult(any());
+    }
+
+    /**
+     * Backs the counter rows by a map; tests stub saveAndFlush and incrementRefCount themselves.
+     */
+    private Map<String, StoredObject> givenStoredObjectRows() {
+        Map<String, StoredObject> rows = new ConcurrentHashMap<>();
+        given(storedObjectRepository.findForUpdate(anyString()))
+                .willAnswer(invocation -> Optional.ofNullable(rows.get(invocation.<String>getArgument(0))));
+        given(storedObjectRepository.decrementRefCount(anyString())).willAnswer(invocation -> {
+            StoredObject row = rows.get(invocation.<String>getArgument(0));
+            if (row == null) {
+                return 0;
+            }
+            row.setRefCount(row.getRefCount() - 1);
+            return 1;
+        });
+        given(storedObjectRepository.deleteUnreferenced(anyString())).willAnswer(invocation -> {
+            String key = invocation.getArgument(0);
+            StoredObject row = rows.get(key);
+            return row != null && row.getRefCount() <= 0 && rows.remove(key, row) ? 1 : 0;
+        });
+        given(storedObjectRepository.markStored(anyString())).willAnswer(invocation -> {
+            rows.get(invocation.<String>getArgument(0)).setStored(true);
+            return 1;
+        });
+        return rows;
+    }
+
+    private List<String> deletedKeys() {
+        ArgumentCaptor<DeleteObjectsRequest> requests = ArgumentCaptor.forClass(DeleteObjectsRequest.class);
+        verify(s3, atLeast(0)).deleteObjects(requests.capture());
+        return requests.getAllValues().stream()
+                .flatMap(request -> request.getKeys().stream())
+                .map(DeleteObjectsRequest.KeyVersion::getKey)
+                .toList();
+    }
+
+    private static List<MultipartFile> images(int count) throws IOException {
+        return images(count, 24, 24);
+    }
+
+    private static List<MultipartFile> images(int count, int width, int height) throws IOException {
+        List<MultipartFile> images = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            image.setRGB(0, 0, 0x404040 * (i + 1));
+            ByteArrayOutputStream png = new ByteArrayOutputStream();
+            ImageIO.write(image, "png", png);
+            images.add(new MockMultipartFile("images", "photo" + i + ".png", "image/png", png.toByteArray()));
+        }
+        return images;
+    }
+}
@@ -0,0 +1,80 @@
+package com.sniff.filestore;
+
+import com.sniff.filestore.exception.ImageTooLargeException;
+import com.sniff.filestore.exception.IncorrectFileFormatException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+import static com.sniff.utils.ImageUtils.readImage;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ImageDecodingTest {
+    private static final long MAX_PIXELS = 40_000_000L;
+
+    @Test
+    @DisplayName("[Sprint-4] Large image is decoded near the target size")
+    public void largeImageIsSubsampledNearTargetSize() throws IOException {
+        ByteArrayResource image = png(4000, 3000);
+
+        BufferedImage decoded = readImage(image, 1600, MAX_PIXELS);
+
+        assertThat(decoded.getWidth()).isEqualTo(2000);
+        assertThat(decoded.getHeight()).isEqualTo(1500);
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Image smaller than the target size is decoded as is")
+    public void smallImageIsDecodedAsIs() throws IOException {
+        BufferedImage decoded = readImage(png(800, 600), 1600, MAX_PIXELS);
+
+        assertThat(decoded.getWidth()).isEqualTo(800);
+        assertThat(decoded.getHeight()).isEqualTo(600);
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Decompression bomb is rejected from its header")
+    public void decompressionBombIsRejectedFromHeader() throws IOException {
+        ByteArrayResource bomb = withDimensions(png(16, 16), 100_000, 100_000);
+
+        assertThatThrownBy(() -> readImage(bomb, 1600, MAX_PIXELS))
+                .isInstanceOf(ImageTooLargeException.class);
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Unreadable content is rejected")
+    public void unreadableContentIsRejected() {
+        ByteArrayResource text = new ByteArrayResource("not an image".getBytes());
+
+        assertThatThrownBy(() -> readImage(text, 1600, MAX_PIXELS))
+                .isInstanceOf(IncorrectFileFormatException.class);
+    }
+
+    private ByteArrayResource png(int width, int height) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", output);
+        return new ByteArrayResource(output.toByteArray());
+    }
+
+    /**
+     * Rewrites the IHDR dimensions, which follow the 8 byte signature and the chunk length and type,
+     * and fixes the chunk CRC, so the header claims a size the data doesn't have.
+     */
+    private ByteArrayResource withDimensions(ByteArrayResource png, int width, int height) {
+        byte[] bytes = png.getByteArray().clone();
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        buffer.putInt(16, width).putInt(20, height);
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 12, 17);
+        buffer.putInt(29, (int) crc.getValue());
+        return new ByteArrayResource(bytes);
+    }
+}
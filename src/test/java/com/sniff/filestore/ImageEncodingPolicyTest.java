@@ -0,0 +1,141 @@
+package com.sniff.filestore;
+
+import com.sniff.filestore.encoding.ImageEncoder;
+import com.sniff.filestore.encoding.ImageEncodingPolicy;
+import com.sniff.filestore.encoding.JpegImageEncoder;
+import com.sniff.filestore.encoding.PngImageEncoder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Random;
+
+import static com.sniff.filestore.enums.ImageVariant.FULL;
+import static com.sniff.filestore.enums.ImageVariant.THUMBNAIL;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ImageEncodingPolicyTest {
+    private final ImageEncodingPolicy policy = policy(true, "");
+
+    @Test
+    @DisplayName("[Sprint-4] Full variant is bounded by the configured size")
+    public void fullVariantIsBoundedByConfiguredSize() {
+        assertThat(policy.maxSize(FULL)).isEqualTo(1600);
+        assertThat(policy.maxSize(THUMBNAIL)).isEqualTo(THUMBNAIL.getMaxSize());
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Photographic PNG is converted to JPEG")
+    public void photographicPngIsConvertedToJpeg() {
+        BufferedImage photo = new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
+        photo.setRGB(0, 0, 0xFF336699);
+        fillOpaque(photo);
+
+        assertThat(policy.encoderFor("image/png", photo).getFormat()).isEqualTo("jpeg");
+        assertThat(policy(false, "").encoderFor("image/png", photo).getFormat()).isEqualTo("png");
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Transparent and palette PNGs stay PNG")
+    public void transparentAndPalettePngsStayPng() {
+        BufferedImage transparent = new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
+        BufferedImage palette = new BufferedImage(10, 10, BufferedImage.TYPE_BYTE_INDEXED);
+
+        assertThat(policy.encoderFor("image/png", transparent).getFormat()).isEqualTo("png");
+        assertThat(policy.encoderFor("image/png", palette).getFormat()).isEqualTo("png");
+        assertThat(policy.encoderFor("image/jpeg", palette).getFormat()).isEqualTo("jpeg");
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Preferred format is used when its encoder is registered")
+    public void preferredFormatIsUsedWhenRegistered() {
+        ImageEncoder webp = new StubEncoder("webp");
+        ImageEncodingPolicy webpPolicy = new ImageEncodingPolicy(
+                List.of(new JpegImageEncoder(0.8f), new PngImageEncoder(), webp), 1600, true, "webp");
+        BufferedImage transparent = new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
+
+        assertThat(webpPolicy.encoderFor("image/jpeg", new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB)))
+                .isSameAs(webp);
+        assertThat(webpPolicy.encoderFor("image/png", transparent).getFormat()).isEqualTo("png");
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Preferred format without an encoder fails startup")
+    public void preferredFormatWithoutEncoderFails() {
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> policy(true, "webp"));
+
+        assertThat(exception.getMessage()).contains("'webp'");
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Photographic image is far smaller as JPEG")
+    public void photographicImageIsSmallerAsJpeg() throws IOException {
+        BufferedImage photo = photographicImage(800, 600);
+        int png = encodedSize(new PngImageEncoder(), photo);
+        int jpeg82 = encodedSize(new JpegImageEncoder(0.82f), photo);
+        int jpeg60 = encodedSize(new JpegImageEncoder(0.60f), photo);
+
+        assertThat(jpeg82).isLessThan(png / 2);
+        assertThat(jpeg60).isLessThan(jpeg82);
+    }
+
+    private static int encodedSize(ImageEncoder encoder, BufferedImage image) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        encoder.encode(image, output);
+        return output.size();
+    }
+
+    private static BufferedImage photographicImage(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int noise = random.nextInt(24);
+                int red = Math.min(255, x * 255 / width + noise);
+                int green = Math.min(255, y * 255 / height + noise);
+                int blue = Math.min(255, 128 + noise);
+                image.setRGB(x, y, red << 16 | green << 8 | blue);
+            }
+        }
+        return image;
+    }
+
+    private static void fillOpaque(BufferedImage image) {
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                image.setRGB(x, y, image.getRGB(x, y) | 0xFF000000);
+            }
+        }
+    }
+
+    private static ImageEncodingPolicy policy(boolean pngToJpeg, String preferredFormat) {
+        return new ImageEncodingPolicy(List.of(new JpegImageEncoder(0.8f), new PngImageEncoder()),
+                1600, pngToJpeg, preferredFormat);
+    }
+
+    private record StubEncoder(String getFormat) implements ImageEncoder {
+        @Override
+        public String getContentType() {
+            return "image/" + getFormat;
+        }
+
+        @Override
+        public String getExtension() {
+            return getFormat;
+        }
+
+        @Override
+        public boolean supportsTransparency() {
+            return false;
+        }
+
+        @Override
+        public void encode(BufferedImage image, OutputStream output) {
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.sniff.filestore;
+
+import com.sniff.auth.service.AuthVerifyService;
+import com.sniff.filestore.exception.FailedToUploadFileException;
+import com.sniff.filestore.exception.ImageJobNotFoundException;
+import com.sniff.filestore.exception.ImageJobsQueueFullException;
+import com.sniff.filestore.model.response.ImageJob;
+import com.sniff.filestore.service.FileStoreService;
+import com.sniff.filestore.service.ImageJobService;
+import com.sniff.filestore.upload.ImageSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.sniff.filestore.enums.ImageJobState.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+public class ImageJobServiceTest {
+    private static final byte[] CONTENT = { 1, 2, 3 };
+
+    @Mock
+    private FileStoreService fileStoreService;
+    @Mock
+    private AuthVerifyService authVerifyService;
+
+    @TempDir
+    private Path stagingDir;
+
+    private final List<Runnable> tasks = new ArrayList<>();
+    private ImageJobService imageJobService;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        imageJobService = new ImageJobService(fileStoreService, authVerifyService, tasks::add);
+        ReflectionTestUtils.setField(imageJobService, "STAGING_DIR", stagingDir.toString());
+        ReflectionTestUtils.setField(imageJobService, "JOB_RETENTION", Duration.ofHours(1));
+        imageJobService.prepareStagingDir();
+        given(authVerifyService.getIdFromSubject()).willReturn(1L);
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Pet photos are processed in the background from the staging area")
+    public void petPhotosAreProcessedInBackground() throws IOException {
+        List<byte[]> processed = new ArrayList<>();
+        given(fileStoreService.storePetPhotos(eq(1L), any())).willAnswer(invocation -> {
+            for (ImageSource image : invocation.<List<ImageSource>>getArgument(1)) {
+                try (InputStream input = image.content().getInputStream()) {
+                    processed.add(input.readAllBytes());
+                }
+            }
+            return List.of("url1", "url2");
+        });
+
+        ImageJob job = imageJobService.submitPetPhotos(1L, List.of(image(), image()));
+
+        assertThat(job.getState()).isEqualTo(PENDING);
+        assertThat(stagedFiles()).hasSize(2);
+
+        tasks.forEach(Runnable::run);
+
+        ImageJob completed = imageJobService.getJob(job.getId());
+        assertThat(completed.getState()).isEqualTo(COMPLETED);
+        assertThat(completed.getUrls()).containsExactly("url1", "url2");
+        assertThat(processed).allSatisfy(bytes -> assertThat(bytes).isEqualTo(CONTENT));
+        assertThat(stagedFiles()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Failed image job reports the error")
+    public void failedImageJobReportsError() throws IOException {
+        given(fileStoreService.storeUserAvatar(eq(1L), any()))
+                .willThrow(new FailedToUploadFileException("Upload failed"));
+
+        ImageJob job = imageJobService.submitUserAvatar(1L, image());
+        tasks.forEach(Runnable::run);
+
+        ImageJob failed = imageJobService.getJob(job.getId());
+        assertThat(failed.getState()).isEqualTo(FAILED);
+        assertThat(failed.getError()).isEqualTo("Upload failed");
+        assertThat(stagedFiles()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Try to get someone else image job")
+    public void getSomeoneElseImageJob() {
+        ImageJob job = imageJobService.submitUserAvatar(1L, image());
+        given(authVerifyService.getIdFromSubject()).willReturn(2L);
+
+        assertThrows(ImageJobNotFoundException.class, () -> imageJobService.getJob(job.getId()));
+        assertThrows(ImageJobNotFoundException.class, () -> imageJobService.getJob(UUID.randomUUID()));
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Image job is rejected when the queue is full")
+    public void imageJobIsRejectedWhenQueueIsFull() throws IOException {
+        imageJobService = new ImageJobService(fileStoreService, authVerifyService, task -> {
+            throw new TaskRejectedException("Queue is full");
+        });
+        ReflectionTestUtils.setField(imageJobService, "STAGING_DIR", stagingDir.toString());
+        ReflectionTestUtils.setField(imageJobService, "JOB_RETENTION", Duration.ofHours(1));
+
+        assertThrows(ImageJobsQueueFullException.class,
+                () -> imageJobService.submitPetPhotos(1L, List.of(image())));
+        assertThat(stagedFiles()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Images staged before a restart are deleted on startup")
+    public void imagesStagedBeforeRestartAreDeleted() throws IOException {
+        imageJobService.submitUserAvatar(1L, image());
+        assertThat(stagedFiles()).hasSize(1);
+        imageJobService = new ImageJobService(fileStoreService, authVerifyService, tasks::add);
+        ReflectionTestUtils.setField(imageJobService, "STAGING_DIR", stagingDir.toString());
+
+        imageJobService.prepareStagingDir();
+
+        assertThat(stagedFiles()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Finished jobs are forgotten after the retention")
+    public void finishedJobsAreForgottenAfterRetention() {
+        ImageJob job = imageJobService.submitUserAvatar(1L, image());
+        tasks.forEach(Runnable::run);
+        ReflectionTestUtils.setField(imageJobService, "JOB_RETENTION", Duration.ofSeconds(-1));
+
+        imageJobService.removeExpiredJobs();
+
+        assertThrows(ImageJobNotFoundException.class, () -> imageJobService.getJob(job.getId()));
+    }
+
+    private static MockMultipartFile image() {
+        return new MockMultipartFile("images", "photo.png", "image/png", CONTENT);
+    }
+
+    private List<Path> stagedFiles() throws IOException {
+        try (var files = Files.list(stagingDir)) {
+            return files.toList();
+        }
+    }
+}
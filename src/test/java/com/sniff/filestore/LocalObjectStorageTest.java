@@ -0,0 +1,159 @@
+package com.sniff.filestore;
+
+import com.sniff.filestore.controller.LocalFileController;
+import com.sniff.filestore.storage.LocalObjectStorage;
+import com.sniff.filestore.upload.UploadBuffer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class LocalObjectStorageTest {
+    @TempDir
+    private Path root;
+
+    private LocalObjectStorage storage;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        storage = new LocalObjectStorage(root, "http://localhost:8080/files");
+        storage.createRoot();
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Stored object can be read back and deleted")
+    public void storedObjectCanBeReadBackAndDeleted() throws IOException {
+        storage.put("pet/card/photo.jpg", buffer("photo"), "image/jpeg");
+
+        assertThat(storage.exists("pet/card/photo.jpg")).isTrue();
+        try (InputStream content = storage.get("pet/card/photo.jpg")) {
+            assertThat(new String(content.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("photo");
+        }
+        try (var files = Files.list(root.resolve("pet/card"))) {
+            assertThat(files).containsExactly(root.resolve("pet/card/photo.jpg"));
+        }
+
+        storage.deleteAll(List.of("pet/card/photo.jpg", "pet/card/missing.jpg"));
+
+        assertThat(storage.exists("pet/card/photo.jpg")).isFalse();
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Object URL maps back to its key")
+    public void objectUrlMapsBackToKey() {
+        String url = storage.getUrl("pet/photo.jpg");
+
+        assertThat(url).isEqualTo("http://localhost:8080/files/pet/photo.jpg");
+        assertThat(storage.getKey(url)).isEqualTo("pet/photo.jpg");
+        assertThat(storage.getKey("http://127.0.0.1:9090/files/pet/photo.jpg")).isEqualTo("pet/photo.jpg");
+        assertThat(storage.getKey("https://bucket.s3.amazonaws.com/pet/1/old.png")).isEqualTo("pet/1/old.png");
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Key outside of the root is rejected")
+    public void keyOutsideOfRootIsRejected() {
+        assertThatThrownBy(() -> storage.put("../outside.jpg", buffer("photo"), "image/jpeg"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(root.resolveSibling("outside.jpg")).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Stored object is served with its content type")
+    public void storedObjectIsServed() throws Exception {
+        storage.put("pet/photo.jpg", buffer("photo"), "image/jpeg");
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new LocalFileController(storage)).build();
+
+        mockMvc.perform(get("/files/pet/photo.jpg"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/jpeg"))
+                .andExpect(header().longValue("Content-Length", 5))
+                .andExpect(content().string("photo"));
+        mockMvc.perform(get("/files/pet/missing.jpg"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Object is uploaded through a presigned URL")
+    public void objectIsUploadedThroughPresignedUrl() throws Exception {
+        LocalFileController controller = new LocalFileController(storage);
+        ReflectionTestUtils.setField(controller, "MAX_UPLOAD_SIZE", DataSize.ofKilobytes(1));
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+        String url = storage.presignPut("uploads/pet/1/upload", "image/png", Instant.now().plusSeconds(60));
+
+        mockMvc.perform(put(url.replace("http://localhost:8080", "")).contentType("image/jpeg").content("photo"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(put(url.replace("http://localhost:8080", "")).contentType("image/png").content("photo"))
+                .andExpect(status().isOk());
+
+        assertThat(storage.head("uploads/pet/1/upload")).hasValueSatisfying(upload ->
+                assertThat(upload.size()).isEqualTo(5));
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Chunked upload over the size limit is rejected while streaming")
+    public void chunkedUploadOverSizeLimitIsRejected() throws Exception {
+        LocalFileController controller = new LocalFileController(storage);
+        ReflectionTestUtils.setField(controller, "MAX_UPLOAD_SIZE", DataSize.ofBytes(4));
+        String key = "uploads/pet/1/upload";
+        String url = storage.presignPut(key, "image/png", Instant.now().plusSeconds(60));
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/files/" + key) {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "/files/" + key);
+        request.setContentType("image/png");
+        request.setContent("photo".getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        UriComponents query = UriComponentsBuilder.fromUriString(url).build();
+
+        controller.putFile(Long.parseLong(query.getQueryParams().getFirst("expires")),
+                query.getQueryParams().getFirst("signature"), request, response);
+
+        assertThat(response.getStatus()).isEqualTo(413);
+        assertThat(storage.exists(key)).isFalse();
+        try (var files = Files.walk(root)) {
+            assertThat(files.filter(Files::isRegularFile)).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Ranged read returns only the first bytes")
+    public void rangedReadReturnsFirstBytes() throws IOException {
+        storage.put("pet/photo.jpg", buffer("photo"), "image/jpeg");
+
+        try (InputStream content = storage.get("pet/photo.jpg", 3)) {
+            assertThat(content.readAllBytes()).isEqualTo("pho".getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static UploadBuffer buffer(String content) throws IOException {
+        UploadBuffer buffer = new UploadBuffer(16);
+        buffer.write(content.getBytes(StandardCharsets.UTF_8));
+        return buffer;
+    }
+}
@@ -0,0 +1,117 @@
+package com.sniff.filestore;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.sniff.filestore.upload.S3Uploader;
+import com.sniff.filestore.upload.UploadBuffer;
+import com.sniff.filestore.upload.UploadBufferPool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class S3UploaderTest {
+    private static final int UPLOAD_SIZE = (int) DataSize.ofMegabytes(5).toBytes();
+    private static final byte[] CHUNK = new byte[64 * 1024];
+    private static final byte[] SINK = new byte[8 * 1024];
+
+    @Mock
+    private AmazonS3 s3;
+
+    private UploadBufferPool pool;
+    private S3Uploader uploader;
+
+    @BeforeEach
+    public void setUp() {
+        pool = new UploadBufferPool(2, DataSize.ofKilobytes(512), DataSize.ofMegabytes(8));
+        uploader = new S3Uploader(s3);
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Upload sends the exact content length")
+    public void uploadSendsExactContentLength() throws IOException {
+        UploadBuffer buffer = pool.acquire();
+        buffer.write(new byte[1234]);
+
+        uploader.upload("bucket/pet/1", "photo.png", buffer, "image/png");
+
+        ArgumentCaptor<ObjectMetadata> metadata = ArgumentCaptor.forClass(ObjectMetadata.class);
+        verify(s3).putObject(eq("bucket/pet/1"), eq("photo.png"), any(InputStream.class), metadata.capture());
+        assertThat(metadata.getValue().getContentLength()).isEqualTo(1234);
+        assertThat(metadata.getValue().getContentType()).isEqualTo("image/png");
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Pooled upload allocates far less than the uploaded size")
+    public void pooledUploadDoesNotCopyContent() {
+        given(s3.putObject(any(), any(), any(InputStream.class), any())).willAnswer(invocation -> {
+            drain(invocation.getArgument(2));
+            return null;
+        });
+        uploadFromPool();
+        uploadFromPool();
+
+        long pooledBytes = allocatedBytes(this::uploadFromPool);
+        long unpooledBytes = allocatedBytes(this::uploadWithByteArrayCopy);
+
+        assertThat(unpooledBytes).isGreaterThan(2L * UPLOAD_SIZE);
+        assertThat(pooledBytes).isLessThan(UPLOAD_SIZE / 10);
+    }
+
+    private void uploadFromPool() {
+        UploadBuffer buffer = pool.acquire();
+        try {
+            fill(buffer);
+            uploader.upload("bucket/pet/1", "photo.png", buffer, "image/png");
+        } finally {
+            pool.release(buffer);
+        }
+    }
+
+    private void uploadWithByteArrayCopy() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        fill(output);
+        byte[] content = output.toByteArray();
+        assertThat(content).hasSize(UPLOAD_SIZE);
+    }
+
+    private static void fill(ByteArrayOutputStream output) {
+        for (int written = 0; written < UPLOAD_SIZE; written += CHUNK.length) {
+            output.write(CHUNK, 0, CHUNK.length);
+        }
+    }
+
+    private static void drain(InputStream input) {
+        try {
+            while (input.read(SINK) != -1) {
+                // the request body is consumed like the S3 client would
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long allocatedBytes(Runnable upload) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long before = threads.getCurrentThreadAllocatedBytes();
+        upload.run();
+        return threads.getCurrentThreadAllocatedBytes() - before;
+    }
+}
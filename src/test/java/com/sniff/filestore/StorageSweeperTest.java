@@ -0,0 +1,118 @@
+package com.sniff.filestore;
+
+import com.sniff.filestore.repository.StoredObjectRepository;
+import com.sniff.filestore.service.StorageSweeper;
+import com.sniff.filestore.storage.LocalObjectStorage;
+import com.sniff.filestore.upload.UploadBuffer;
+import com.sniff.pet.repository.PetRepository;
+import com.sniff.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class StorageSweeperTest {
+    private static final String BASE_URL = "http://localhost:8080/files/";
+
+    @TempDir
+    private Path root;
+    @Mock
+    private PetRepository petRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private StoredObjectRepository storedObjectRepository;
+
+    private LocalObjectStorage storage;
+    private StorageSweeper sweeper;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        storage = new LocalObjectStorage(root, BASE_URL);
+        storage.createRoot();
+        sweeper = new StorageSweeper(storage, petRepository, userRepository, storedObjectRepository, Duration.ofDays(1));
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Sweeper deletes only old unreferenced objects")
+    public void sweeperDeletesOnlyOldUnreferencedObjects() throws IOException {
+        storeOld("pet/used.jpg", "pet/card/used.jpg", "pet/orphan.jpg", "pet/card/orphan.jpg",
+                "user/avatar.jpg", "user/thumbnail/stale.jpg");
+        storage.put("pet/fresh.jpg", new UploadBuffer(16), "image/jpeg");
+        given(petRepository.findPhotosEndingIn(anyInt(), anyCollection())).willReturn(List.of(BASE_URL + "pet/used.jpg"));
+        given(userRepository.findAvatarsEndingIn(anyInt(), anyCollection()))
+                .willReturn(List.of(BASE_URL + "user/avatar.jpg"));
+
+        int deleted = sweeper.sweep();
+
+        assertThat(deleted).isEqualTo(3);
+        assertThat(storage.exists("pet/used.jpg")).isTrue();
+        assertThat(storage.exists("pet/card/used.jpg")).isTrue();
+        assertThat(storage.exists("pet/fresh.jpg")).isTrue();
+        assertThat(storage.exists("user/avatar.jpg")).isTrue();
+        assertThat(storage.exists("pet/orphan.jpg")).isFalse();
+        assertThat(storage.exists("pet/card/orphan.jpg")).isFalse();
+        assertThat(storage.exists("user/thumbnail/stale.jpg")).isFalse();
+        verify(storedObjectRepository).deleteAllUnreferenced(List.of("pet/orphan.jpg"));
+        verify(storedObjectRepository).deleteAllUnreferenced(List.of("user/stale.jpg"));
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Sweeper keeps retained objects that are not attached yet")
+    public void sweeperKeepsRetainedUnattachedObjects() throws IOException {
+        storeOld("pet/held.jpg", "pet/card/held.jpg", "pet/orphan.jpg");
+        given(storedObjectRepository.findReferencedKeys(anyCollection())).willReturn(List.of("pet/held.jpg"));
+
+        int deleted = sweeper.sweep();
+
+        assertThat(deleted).isEqualTo(1);
+        assertThat(storage.exists("pet/held.jpg")).isTrue();
+        assertThat(storage.exists("pet/card/held.jpg")).isTrue();
+        assertThat(storage.exists("pet/orphan.jpg")).isFalse();
+        verify(storedObjectRepository).deleteAllUnreferenced(List.of("pet/orphan.jpg"));
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Sweeper keeps objects referenced under a previous base URL")
+    public void sweeperKeepsObjectsReferencedUnderPreviousBaseUrl() throws IOException {
+        storeOld("pet/used.jpg", "pet/card/used.jpg", "user/avatar.jpg");
+        given(petRepository.findPhotosEndingIn(anyInt(), anyCollection()))
+                .willReturn(List.of("http://localhost:9090/files/pet/used.jpg"));
+        given(userRepository.findAvatarsEndingIn(anyInt(), anyCollection()))
+                .willReturn(List.of("https://bucket.s3.amazonaws.com/user/avatar.jpg"));
+
+        int deleted = sweeper.sweep();
+
+        assertThat(deleted).isZero();
+        assertThat(storage.exists("pet/used.jpg")).isTrue();
+        assertThat(storage.exists("pet/card/used.jpg")).isTrue();
+        assertThat(storage.exists("user/avatar.jpg")).isTrue();
+        verify(petRepository).findPhotosEndingIn(13, List.of("/pet/used.jpg"));
+    }
+
+    private void storeOld(String... keys) throws IOException {
+        FileTime old = FileTime.from(Instant.now().minus(Duration.ofDays(2)));
+        for (String key : keys) {
+            storage.put(key, new UploadBuffer(16), "image/jpeg");
+            Files.setLastModifiedTime(storage.resolve(key), old);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.sniff.location;
+
+import com.sniff.jwt.JwtService;
+import com.sniff.location.controller.LocationController;
+import com.sniff.location.exception.RegionNotFoundException;
+import com.sniff.location.model.response.SerializedLocations;
+import com.sniff.location.service.LocationService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureWebMvc
+@AutoConfigureMockMvc(addFilters = false)
+@WebMvcTest(LocationController.class)
+public class LocationControllerTest {
+    private static final SerializedLocations REGIONS =
+            new SerializedLocations("[{\"id\":1,\"name\":\"Kyiv\"}]".getBytes(), "\"etag\"");
+
+    @MockBean
+    private LocationService locationService;
+    @MockBean
+    private JwtService jwtService;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    @DisplayName("[Sprint-4] Get regions with ETag and Cache-Control")
+    public void getRegionsWithEtag() throws Exception {
+        given(locationService.getRegions()).willReturn(REGIONS);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/location/regions"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"etag\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=86400, public"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].name").value("Kyiv"));
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Get regions with a matching If-None-Match")
+    public void getRegionsNotModified() throws Exception {
+        given(locationService.getRegions()).willReturn(REGIONS);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/location/regions")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"etag\""))
+                .andExpect(status().isNotModified())
+                .andExpect(MockMvcResultMatchers.content().string(""));
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Search cities of the region by prefix")
+    public void searchRegionCities() throws Exception {
+        given(locationService.searchCities("ky", 1L, 10)).willReturn(REGIONS);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/location/regions/{id}/cities", 1L)
+                        .param("q", "ky"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].name").value("Kyiv"));
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Try to get cities of non-existent region")
+    public void getCitiesOfNonExistentRegion() throws Exception {
+        given(locationService.getRegionCities(5L)).willThrow(new RegionNotFoundException("Region not found"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/location/regions/{id}/cities", 5L))
+                .andExpect(status().isNotFound());
+    }
+}
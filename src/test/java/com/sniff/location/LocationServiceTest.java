@@ -0,0 +1,143 @@
+package com.sniff.location;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sniff.location.exception.CityRegionsNotSeededException;
+import com.sniff.location.exception.RegionNotFoundException;
+import com.sniff.location.model.entity.City;
+import com.sniff.location.model.entity.Region;
+import com.sniff.location.model.response.Location;
+import com.sniff.location.model.response.SerializedLocations;
+import com.sniff.location.repository.CityRepository;
+import com.sniff.location.repository.RegionRepository;
+import com.sniff.location.service.LocationService;
+import com.sniff.mapper.LocationMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class LocationServiceTest {
+    @Mock
+    private RegionRepository regionRepository;
+    @Mock
+    private CityRepository cityRepository;
+    @Mock
+    private LocationMapper locationMapper;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private LocationService locationService;
+
+    @Test
+    @DisplayName("[Sprint-4] Regions are served from the snapshot without querying the database")
+    public void regionsAreServedFromSnapshot() {
+        given(locationMapper.regionToLocation(any())).willReturn(List.of(new Location(1L, "Kyiv")));
+
+        SerializedLocations first = locationService.getRegions();
+        SerializedLocations second = locationService.getRegions();
+
+        assertThat(second).isSameAs(first);
+        assertThat(new String(first.getJson())).isEqualTo("[{\"id\":1,\"name\":\"Kyiv\"}]");
+        assertThat(first.getEtag()).startsWith("\"").endsWith("\"");
+        verify(regionRepository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Refresh publishes a snapshot with a new ETag")
+    public void refreshPublishesNewSnapshot() {
+        given(locationMapper.cityToLocation(any()))
+                .willReturn(List.of(new Location(1L, "Kyiv")))
+                .willReturn(List.of(new Location(1L, "Kyiv"), new Location(2L, "Lviv")));
+
+        String etag = locationService.getCities().getEtag();
+        locationService.refresh();
+
+        assertThat(locationService.getCities().getEtag()).isNotEqualTo(etag);
+        verify(cityRepository, times(2)).findAll();
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Search cities by name prefix ignoring case")
+    public void searchCitiesByPrefix() {
+        givenCities();
+
+        String found = new String(locationService.searchCities("KY", null, 10).getJson());
+
+        assertThat(found).isEqualTo("[{\"id\":1,\"name\":\"Kyiv\"},{\"id\":3,\"name\":\"Kyivska Hora\"}]");
+        verify(cityRepository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Search cities of the region with a limit")
+    public void searchRegionCitiesWithLimit() {
+        givenCities();
+
+        String found = new String(locationService.searchCities("l", 2L, 1).getJson());
+
+        assertThat(found).isEqualTo("[{\"id\":5,\"name\":\"Lokhvytsia\"}]");
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Get cities of the region")
+    public void getRegionCities() {
+        givenCities();
+
+        String cities = new String(locationService.getRegionCities(1L).getJson());
+
+        assertThat(cities).isEqualTo("[{\"id\":1,\"name\":\"Kyiv\"},{\"id\":3,\"name\":\"Kyivska Hora\"}]");
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Try to get cities of non-existent region")
+    public void getCitiesOfNonExistentRegion() {
+        givenCities();
+
+        assertThrows(RegionNotFoundException.class, () -> locationService.getRegionCities(5L));
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Cities by region are unavailable while some city has no region")
+    public void regionCitiesUnavailableUntilSeeded() {
+        givenCities();
+        Region kyivRegion = new Region(1L, "Kyivska", null);
+        given(cityRepository.findAll()).willReturn(List.of(
+                new City(1L, "Kyiv", kyivRegion, null),
+                new City(6L, "Bila Tserkva", null, null)));
+
+        assertThrows(CityRegionsNotSeededException.class, () -> locationService.getRegionCities(1L));
+        assertThrows(CityRegionsNotSeededException.class, () -> locationService.searchCities("b", 1L, 10));
+        assertThat(new String(locationService.searchCities("b", null, 10).getJson()))
+                .isEqualTo("[{\"id\":6,\"name\":\"Bila Tserkva\"}]");
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenCities() {
+        Region kyivRegion = new Region(1L, "Kyivska", null);
+        Region poltavaRegion = new Region(2L, "Poltavska", null);
+        given(regionRepository.findAll()).willReturn(List.of(kyivRegion, poltavaRegion));
+        given(cityRepository.findAll()).willReturn(List.of(
+                new City(1L, "Kyiv", kyivRegion, null),
+                new City(2L, "Poltava", poltavaRegion, null),
+                new City(3L, "Kyivska Hora", kyivRegion, null),
+                new City(4L, "Lubny", poltavaRegion, null),
+                new City(5L, "Lokhvytsia", poltavaRegion, null)));
+        given(locationMapper.cityToLocation(any())).willAnswer(invocation ->
+                ((List<City>) invocation.getArgument(0)).stream()
+                        .map(city -> new Location(city.getId(), city.getName()))
+                        .toList());
+    }
+}
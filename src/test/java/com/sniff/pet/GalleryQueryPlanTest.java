@@ -0,0 +1,174 @@
+package com.sniff.pet;
+
+import com.sniff.pet.enums.PetStatus;
+import com.sniff.pet.repository.PetRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the gallery repository methods for every filter combination on a seeded dataset,
+ * captures the SQL Hibernate generates for them, and fails when the EXPLAIN of a filtered
+ * statement falls back to a full scan of the pet table.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "com.sniff.pet.GalleryQueryPlanTest$CapturedStatements")
+public class GalleryQueryPlanTest {
+    private static final int REGIONS = 20;
+    private static final int CITIES = 50;
+    private static final int USERS = 500;
+    private static final int PETS = 5_000;
+    private static final String TABLE_SCAN = ".tableScan";
+    private static final Map<String, Object> VALUES = Map.of(
+            "author_id=", 7L,
+            "status=", "LOST",
+            "region_id=", 3L,
+            "city_id=", 7L,
+            "id<", 4_000L);
+    private static final Pattern PARAMETER = Pattern.compile("([\\w.]+ *[=<]) *\\?");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PetRepository petRepository;
+
+    @BeforeEach
+    public void seed() {
+        jdbcTemplate.batchUpdate("INSERT INTO region (id, name) VALUES (?, ?)",
+                rows(REGIONS, i -> new Object[] { i, "Region" + i }));
+        jdbcTemplate.batchUpdate("INSERT INTO city (id, name) VALUES (?, ?)",
+                rows(CITIES, i -> new Object[] { i, "City" + i }));
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, firstname, lastname, email, phone, password, role, " +
+                        "region_id, city_id) VALUES (?, 'Mark', 'Himonov', ?, '+380111111111', 'password', 'USER', ?, ?)",
+                rows(USERS, i -> new Object[] { i, "user" + i + "@gmail.com", i % REGIONS + 1, i % CITIES + 1 }));
+        jdbcTemplate.batchUpdate("INSERT INTO pet (id, status, name, latitude, longitude, gender, " +
+                        "found_or_lost_date, author_id, region_id, city_id) " +
+                        "VALUES (?, ?, 'Pet', 50.45, 30.52, 'MALE', CURRENT_DATE, ?, ?, ?)",
+                rows(PETS, i -> new Object[] { i, i % 2 == 0 ? "LOST" : "FOUND", i % USERS + 1,
+                        i % USERS % REGIONS + 1, i % USERS % CITIES + 1 }));
+        CapturedStatements.clear();
+    }
+
+    @ParameterizedTest(name = "status={0}, regionId={1}, cityId={2}")
+    @MethodSource("galleryFilters")
+    @DisplayName("[Sprint-4] Filtered gallery queries use indexes")
+    public void filteredGalleryQueriesUseIndexes(PetStatus status, Long regionId, Long cityId) {
+        petRepository.findPetsByStatusRegionAndCity(status, regionId, cityId, PageRequest.of(0, 12));
+        petRepository.findPetsByStatusRegionAndCityAfter(status, regionId, cityId, 4_000L, PageRequest.of(0, 12));
+
+        assertNoTableScan(CapturedStatements.petQueries(), status == null && regionId == null && cityId == null);
+    }
+
+    @ParameterizedTest(name = "status={0}")
+    @MethodSource("userPetCardsFilters")
+    @DisplayName("[Sprint-4] User pet cards queries use indexes")
+    public void userPetCardsQueriesUseIndexes(PetStatus status) {
+        petRepository.findPetCardsByAuthor(7L, status, PageRequest.of(0, 3));
+
+        assertNoTableScan(CapturedStatements.petQueries(), false);
+    }
+
+    private static Stream<Arguments> galleryFilters() {
+        List<Arguments> filters = new ArrayList<>();
+        for (PetStatus status : new PetStatus[] { null, PetStatus.LOST, PetStatus.FOUND }) {
+            for (Long regionId : new Long[] { null, 3L }) {
+                for (Long cityId : new Long[] { null, 7L }) {
+                    filters.add(Arguments.of(status, regionId, cityId));
+                }
+            }
+        }
+        return filters.stream();
+    }
+
+    private static Stream<Arguments> userPetCardsFilters() {
+        return Stream.of(Arguments.of((PetStatus) null), Arguments.of(PetStatus.LOST));
+    }
+
+    /**
+     * Explains every captured statement with the filter values bound in place of its parameters.
+     * An unfiltered gallery has no predicate to index, so only its keyset statement is checked.
+     */
+    private void assertNoTableScan(List<String> statements, boolean unfiltered) {
+        assertThat(statements).isNotEmpty();
+        for (String sql : statements) {
+            boolean keyset = sql.contains("id<?") || sql.contains("id < ?");
+            if (unfiltered && !keyset) {
+                continue;
+            }
+            String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, parameters(sql));
+            assertThat(plan).as(sql + "\n" + plan).doesNotContain(TABLE_SCAN);
+        }
+    }
+
+    /**
+     * Filter values in the order their parameters appear, and 0 for paging parameters.
+     */
+    private static Object[] parameters(String sql) {
+        List<Object> parameters = new ArrayList<>();
+        Matcher predicates = PARAMETER.matcher(sql);
+        int position = 0;
+        while ((position = sql.indexOf('?', position)) >= 0) {
+            Object value = 12;
+            predicates.region(0, position + 1);
+            while (predicates.find()) {
+                if (predicates.end() == position + 1) {
+                    String column = predicates.group(1).replaceAll("\\s", "");
+                    value = VALUES.entrySet().stream()
+                            .filter(entry -> column.endsWith(entry.getKey()))
+                            .map(Map.Entry::getValue)
+                            .findFirst()
+                            .orElseThrow(() -> new IllegalStateException("Unknown parameter " + column));
+                }
+            }
+            parameters.add(value);
+            position++;
+        }
+        return parameters.toArray();
+    }
+
+    public static class CapturedStatements implements StatementInspector {
+        private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+
+        static void clear() {
+            STATEMENTS.clear();
+        }
+
+        static List<String> petQueries() {
+            return STATEMENTS.stream()
+                    .filter(sql -> sql.startsWith("select") && sql.contains(" from pet "))
+                    .toList();
+        }
+    }
+
+    private static List<Object[]> rows(int count, IntFunction<Object[]> row) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            rows.add(row.apply(i));
+        }
+        return rows;
+    }
+}
@@ -2,11 +2,14 @@ package com.sniff.pet;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sniff.jwt.JwtService;
+import com.sniff.pagination.PageWithMetadata;
+import com.sniff.pagination.exception.InvalidCursorException;
 import com.sniff.pet.controller.PetController;
 import com.sniff.pet.exceptions.PetNotBelongingToUserException;
 import com.sniff.pet.exceptions.PetNotFoundException;
 import com.sniff.pet.model.entity.Pet;
 import com.sniff.pet.model.request.PetProfileModify;
+import com.sniff.pet.model.response.PetCard;
 import com.sniff.pet.model.response.PetProfile;
 import com.sniff.pet.service.PetService;
 import com.sniff.user.model.entity.User;
@@ -27,11 +30,15 @@ import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.List;
 
 import static com.sniff.pet.enums.Gender.MALE;
 import static com.sniff.pet.enums.PetStatus.LOST;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -72,8 +79,8 @@ public class PetControllerTest {
                 .id(1L)
                 .status(LOST)
                 .name("Pet")
-                .latitude("latitude")
-                .longitude("longitude")
+                .latitude(50.45)
+                .longitude(30.52)
                 .gender(MALE)
                 .foundOrLostDate(LocalDate.now())
                 .description("Description")
@@ -156,6 +163,102 @@ public class PetControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.message").exists());
     }
 
+    @Test
+    @DisplayName("[Sprint-4] Get pet gallery by cursor")
+    public void getPetsGalleryByCursor() throws Exception {
+        given(petService.getPetsGalleryAfter(eq("MTA"), anyInt(), any(), any(), any()))
+                .willReturn(PageWithMetadata.withCursor(List.of(new PetCard(1L, "photo", "Pet")), "MQ"));
+
+        ResultActions response = mockMvc
+                .perform(MockMvcRequestBuilders.get("/api/v1/pets")
+                        .param("after", "MTA")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        response
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content").isArray())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor").value("MQ"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.totalPages").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Try to get pet gallery with malformed cursor")
+    public void tryGetPetsGalleryWithMalformedCursor() throws Exception {
+        given(petService.getPetsGalleryAfter(anyString(), anyInt(), any(), any(), any()))
+                .willThrow(new InvalidCursorException("Invalid cursor"));
+
+        ResultActions response = mockMvc
+                .perform(MockMvcRequestBuilders.get("/api/v1/pets")
+                        .param("after", "???")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        response
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.message").exists());
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Get pets nearby")
+    public void getPetsNearby() throws Exception {
+        given(petService.getPetsNearby(eq(50.45), eq(30.52), eq(5.0), anyInt(), any()))
+                .willReturn(List.of(new PetCard(1L, "https://bucket.s3.amazonaws.com/pet/00000000000000000000000000000000000000000000000000000000000000ab.png", "Pet")));
+
+        ResultActions response = mockMvc
+                .perform(MockMvcRequestBuilders.get("/api/v1/pets/nearby")
+                        .param("lat", "50.45")
+                        .param("lon", "30.52")
+                        .param("radiusKm", "5")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        response
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].photoVariants.thumbnail")
+                        .value("https://bucket.s3.amazonaws.com/pet/thumbnail/00000000000000000000000000000000000000000000000000000000000000ab.png"));
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Get pets nearby with a photo uploaded before variants")
+    public void getPetsNearbyWithLegacyPhoto() throws Exception {
+        given(petService.getPetsNearby(eq(50.45), eq(30.52), eq(5.0), anyInt(), any()))
+                .willReturn(List.of(new PetCard(1L, "https://bucket.s3.amazonaws.com/pet/1/photo.png", "Pet")));
+
+        ResultActions response = mockMvc
+                .perform(MockMvcRequestBuilders.get("/api/v1/pets/nearby")
+                        .param("lat", "50.45")
+                        .param("lon", "30.52")
+                        .param("radiusKm", "5")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        response
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].photoVariants.thumbnail")
+                        .value("https://bucket.s3.amazonaws.com/pet/1/photo.png"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].photoVariants.card")
+                        .value("https://bucket.s3.amazonaws.com/pet/1/photo.png"));
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Try to get pets nearby with too large radius")
+    public void tryGetPetsNearbyWithTooLargeRadius() throws Exception {
+        ResultActions response = mockMvc
+                .perform(MockMvcRequestBuilders.get("/api/v1/pets/nearby")
+                        .param("lat", "50.45")
+                        .param("lon", "30.52")
+                        .param("radiusKm", "1000")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        response
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.radiusKm").exists());
+    }
+
     private PetProfile generatePetProfile(){
         return PetProfile.builder()
                 .id(pet.getId())
@@ -173,8 +276,8 @@ public class PetControllerTest {
         return PetProfileModify.builder()
                 .status(String.valueOf(LOST))
                 .name("Pet")
-                .latitude("latitude")
-                .longitude("longitude")
+                .latitude(50.45)
+                .longitude(30.52)
                 .gender(String.valueOf(MALE))
                 .foundOrLostDate(LocalDate.now())
                 .description("Description")
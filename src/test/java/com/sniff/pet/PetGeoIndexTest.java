@@ -0,0 +1,129 @@
+package com.sniff.pet;
+
+import com.sniff.pet.geo.PetGeoIndex;
+import com.sniff.pet.geo.PetLocation;
+import com.sniff.pet.repository.PetRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+
+import static com.sniff.pet.enums.PetStatus.FOUND;
+import static com.sniff.pet.enums.PetStatus.LOST;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+public class PetGeoIndexTest {
+    @Mock
+    private PetRepository petRepository;
+
+    @InjectMocks
+    private PetGeoIndex petGeoIndex;
+
+    @BeforeEach
+    public void setUp() {
+        given(petRepository.findAllLocations()).willReturn(List.of(
+                new PetLocation(1L, 50.4501, 30.5234, LOST),
+                new PetLocation(2L, 50.4547, 30.5238, FOUND),
+                new PetLocation(3L, 50.5000, 30.5234, LOST),
+                new PetLocation(4L, 49.8397, 24.0297, LOST)
+        ));
+        petGeoIndex.rebuild();
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Find nearby pets sorted by distance")
+    public void findNearbyPetsSortedByDistance() {
+        List<Long> ids = petGeoIndex.findNearby(50.4501, 30.5234, 10, null, 10);
+
+        assertThat(petGeoIndex.isReady()).isTrue();
+        assertThat(ids).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Find nearby pets filtered by status and limit")
+    public void findNearbyPetsFilteredByStatusAndLimit() {
+        assertThat(petGeoIndex.findNearby(50.4501, 30.5234, 10, LOST, 10)).containsExactly(1L, 3L);
+        assertThat(petGeoIndex.findNearby(50.4501, 30.5234, 10, null, 2)).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Find nearby pets across the antimeridian")
+    public void findNearbyPetsAcrossAntimeridian() {
+        petGeoIndex.put(10L, 10.00, 179.95, LOST);
+        petGeoIndex.put(11L, 10.00, -179.95, LOST);
+        petGeoIndex.put(12L, 10.00, 179.80, LOST);
+        petGeoIndex.put(13L, 10.00, 179.00, LOST);
+
+        assertThat(petGeoIndex.findNearby(10.00, 179.90, 20, null, 10)).containsExactly(10L, 12L, 11L);
+        assertThat(petGeoIndex.findNearby(10.00, -179.90, 20, null, 10)).containsExactly(11L, 10L);
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Moved and removed pets are reflected in nearby search")
+    public void movedAndRemovedPetsAreReflected() {
+        petGeoIndex.put(4L, 50.4510, 30.5234, LOST);
+        petGeoIndex.remove(2L);
+
+        assertThat(petGeoIndex.findNearby(50.4501, 30.5234, 1, null, 10)).containsExactly(1L, 4L);
+        assertThat(petGeoIndex.findNearby(49.8397, 24.0297, 1, null, 10)).isEmpty();
+        assertThat(petGeoIndex.size()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Updates are applied only once the transaction commits")
+    public void updatesAreAppliedOnceTransactionCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            petGeoIndex.putAfterCommit(5L, 50.4502, 30.5234, LOST);
+            petGeoIndex.removeAfterCommit(1L);
+
+            assertThat(petGeoIndex.findNearby(50.4501, 30.5234, 1, null, 10)).containsExactly(1L, 2L);
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+
+            assertThat(petGeoIndex.findNearby(50.4501, 30.5234, 1, null, 10)).containsExactly(5L, 2L);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Updates made during a rebuild are kept")
+    public void updatesMadeDuringRebuildAreKept() {
+        given(petRepository.findAllLocations()).willAnswer(invocation -> {
+            List<PetLocation> snapshot = List.of(
+                    new PetLocation(1L, 50.4501, 30.5234, LOST),
+                    new PetLocation(2L, 50.4547, 30.5238, FOUND));
+            petGeoIndex.put(6L, 50.4503, 30.5234, FOUND);
+            petGeoIndex.remove(2L);
+            return snapshot;
+        });
+
+        petGeoIndex.rebuild();
+
+        assertThat(petGeoIndex.findNearby(50.4501, 30.5234, 1, null, 10)).containsExactly(1L, 6L);
+        assertThat(petGeoIndex.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Memory footprint grows with indexed pets")
+    public void memoryFootprintGrowsWithIndexedPets() {
+        long footprint = petGeoIndex.memoryFootprintBytes();
+        for (long id = 100; id < 1_100; id++) {
+            petGeoIndex.put(id, 48 + id % 50 * 0.1, 24 + id % 70 * 0.1, FOUND);
+        }
+
+        assertThat(footprint).isPositive();
+        assertThat(petGeoIndex.memoryFootprintBytes()).isGreaterThan(footprint);
+        assertThat(petGeoIndex.size()).isEqualTo(1_004);
+    }
+}
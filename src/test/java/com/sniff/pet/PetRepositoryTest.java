@@ -0,0 +1,250 @@
+package com.sniff.pet;
+
+import com.sniff.auth.role.Role;
+import com.sniff.location.model.entity.City;
+import com.sniff.location.model.entity.Region;
+import com.sniff.pet.model.entity.Pet;
+import com.sniff.pet.model.response.PetCard;
+import com.sniff.pet.enums.PetStatus;
+import com.sniff.pet.repository.PetCardQuery;
+import com.sniff.pet.repository.PetRepository;
+import com.sniff.user.model.entity.User;
+import com.sniff.utils.GeoArea;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.sniff.pet.enums.Gender.MALE;
+import static com.sniff.pet.enums.PetStatus.FOUND;
+import static com.sniff.pet.enums.PetStatus.LOST;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class PetRepositoryTest {
+    private static final int PETS_COUNT = 20;
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private PetRepository petRepository;
+
+    private User user;
+    private Region region;
+    private City city;
+
+    @BeforeEach
+    public void setUp() {
+        region = entityManager.persist(new Region(null, "Region", null));
+        city = entityManager.persist(new City(null, "City", null, null));
+        user = entityManager.persist(User.builder()
+                .firstname("Mark")
+                .lastname("Himonov")
+                .email("mark@gmail.com")
+                .phone("+380111111111")
+                .password("password")
+                .role(Role.USER)
+                .region(region)
+                .city(city)
+                .build());
+        for (int i = 0; i < PETS_COUNT; i++) {
+            entityManager.persist(Pet.builder()
+                    .status(i % 2 == 0 ? LOST : FOUND)
+                    .name("Pet" + i)
+                    .photos(new ArrayList<>(List.of("photo" + i + "-1", "photo" + i + "-2")))
+                    .coverPhoto("photo" + i + "-1")
+                    .latitude(50.45)
+                    .longitude(30.52)
+                    .gender(MALE)
+                    .foundOrLostDate(LocalDate.now())
+                    .author(user)
+                    .region(region)
+                    .city(city)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Gallery page is loaded with a constant number of statements")
+    public void galleryPageStatementCountDoesNotDependOnPageSize() {
+        long smallPageStatements = countStatements(() ->
+                petRepository.findPetsByStatusRegionAndCity(null, region.getId(), city.getId(), PageRequest.of(0, 2)));
+        long largePageStatements = countStatements(() ->
+                petRepository.findPetsByStatusRegionAndCity(null, region.getId(), city.getId(), PageRequest.of(0, 10)));
+
+        assertThat(largePageStatements).isEqualTo(smallPageStatements);
+        assertThat(largePageStatements).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] User pet cards page is loaded with a constant number of statements")
+    public void userPetCardsStatementCountDoesNotDependOnPageSize() {
+        long smallPageStatements = countStatements(() ->
+                petRepository.findPetCardsByAuthor(user.getId(), LOST, PageRequest.of(0, 2)));
+        long largePageStatements = countStatements(() ->
+                petRepository.findPetCardsByAuthor(user.getId(), LOST, PageRequest.of(0, 10)));
+
+        assertThat(largePageStatements).isEqualTo(smallPageStatements);
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Gallery card holds the cover photo of the pet")
+    public void galleryCardHoldsCoverPhoto() {
+        Page<PetCard> cards = petRepository.findPetsByStatusRegionAndCity(null, null, null, PageRequest.of(0, 1));
+
+        PetCard card = cards.getContent().get(0);
+        assertThat(card.getName()).isEqualTo("Pet" + (PETS_COUNT - 1));
+        assertThat(card.getPhoto()).isEqualTo("photo" + (PETS_COUNT - 1) + "-1");
+        assertThat(cards.getTotalPages()).isEqualTo(PETS_COUNT);
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Nearby pets are limited by radius and sorted by distance")
+    public void nearbyPetsAreLimitedByRadiusAndSortedByDistance() {
+        Long far = persistPetAt("Far", 49.60, 24.00);
+        Long near = persistPetAt("Near", 49.01, 24.00);
+        Long middle = persistPetAt("Middle", 49.00, 24.08);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<PetCard> cards = petRepository.findPetsNearby(
+                GeoArea.around(49.00, 24.00, 10), null, PageRequest.of(0, 10));
+
+        assertThat(cards).extracting(PetCard::getId).containsExactly(near, middle);
+        assertThat(cards).extracting(PetCard::getId).doesNotContain(far);
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Nearby pets are found across the antimeridian")
+    public void nearbyPetsAreFoundAcrossAntimeridian() {
+        Long near = persistPetAt("Near", 10.00, 179.95);
+        Long across = persistPetAt("Across", 10.00, -179.95);
+        Long behind = persistPetAt("Behind", 10.00, 179.80);
+        Long far = persistPetAt("Far", 10.00, 179.00);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<PetCard> cards = petRepository.findPetsNearby(
+                GeoArea.around(10.00, 179.90, 20), null, PageRequest.of(0, 10));
+
+        assertThat(cards).extracting(PetCard::getId).containsExactly(near, behind, across);
+        assertThat(cards).extracting(PetCard::getId).doesNotContain(far);
+    }
+
+    @ParameterizedTest(name = "status={0}, byRegion={1}, byCity={2}")
+    @CsvSource(nullValues = "null", value = {
+            "null, false, false, 25",
+            "LOST, false, false, 13",
+            "null, true, false, 22",
+            "null, false, true, 23",
+            "LOST, true, false, 10",
+            "LOST, false, true, 13",
+            "null, true, true, 20",
+            "LOST, true, true, 10"
+    })
+    @DisplayName("[Sprint-4] Gallery query contains only the supplied filters")
+    public void galleryQueryContainsOnlySuppliedFilters(PetStatus status, boolean byRegion, boolean byCity,
+                                                        long expected) {
+        Region otherRegion = entityManager.persist(new Region(null, "Other region", null));
+        City otherCity = entityManager.persist(new City(null, "Other city", null, null));
+        for (int i = 0; i < 3; i++) {
+            persistPetIn(LOST, otherRegion, city);
+        }
+        for (int i = 0; i < 2; i++) {
+            persistPetIn(FOUND, region, otherCity);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Long regionId = byRegion ? region.getId() : null;
+        Long cityId = byCity ? city.getId() : null;
+
+        PetCardQuery query = new PetCardQuery().status(status).region(regionId).city(cityId);
+
+        assertThat(query.selectJpql()).doesNotContain("IS NULL");
+        assertThat(query.selectJpql().contains(":status")).isEqualTo(status != null);
+        assertThat(query.selectJpql().contains(":regionId")).isEqualTo(byRegion);
+        assertThat(query.selectJpql().contains(":cityId")).isEqualTo(byCity);
+        assertThat(query.selectJpql())
+                .isSameAs(new PetCardQuery().status(status).region(regionId).city(cityId).selectJpql());
+        assertThat(petRepository.findPetsByStatusRegionAndCity(status, regionId, cityId, PageRequest.of(0, 1))
+                .getTotalElements()).isEqualTo(expected);
+        assertThat(petRepository.findPetsByStatusRegionAndCityAfter(status, regionId, cityId, Long.MAX_VALUE,
+                PageRequest.of(0, 100)).getContent()).hasSize((int) expected);
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Author location change is copied to all of their pets")
+    public void authorLocationChangeIsCopiedToPets() {
+        Region newRegion = entityManager.persist(new Region(null, "New region", null));
+        entityManager.flush();
+
+        petRepository.updateLocationByAuthorId(user.getId(), newRegion, null);
+        entityManager.clear();
+
+        assertThat(petRepository.findPetsByStatusRegionAndCity(null, region.getId(), null, PageRequest.of(0, 1))
+                .getTotalElements()).isZero();
+        assertThat(petRepository.findPetsByStatusRegionAndCity(null, newRegion.getId(), null, PageRequest.of(0, 1))
+                .getTotalElements()).isEqualTo(PETS_COUNT);
+        assertThat(petRepository.findPetsByStatusRegionAndCity(null, null, city.getId(), PageRequest.of(0, 1))
+                .getTotalElements()).isZero();
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Photos are found by the suffix of their URL")
+    public void photosAreFoundByUrlSuffix() {
+        assertThat(petRepository.findPhotosEndingIn(4, List.of("o3-1", "o4-2", "o9-9")))
+                .containsExactlyInAnyOrder("photo3-1", "photo4-2");
+        assertThat(petRepository.findPhotosEndingIn(20, List.of("http://host/photo3-1"))).isEmpty();
+    }
+
+    private void persistPetIn(PetStatus status, Region region, City city) {
+        entityManager.persist(Pet.builder()
+                .status(status)
+                .name("Pet")
+                .latitude(50.45)
+                .longitude(30.52)
+                .gender(MALE)
+                .foundOrLostDate(LocalDate.now())
+                .author(user)
+                .region(region)
+                .city(city)
+                .build());
+    }
+
+    private Long persistPetAt(String name, double latitude, double longitude) {
+        return entityManager.persist(Pet.builder()
+                .status(LOST)
+                .name(name)
+                .latitude(latitude)
+                .longitude(longitude)
+                .gender(MALE)
+                .foundOrLostDate(LocalDate.now())
+                .author(user)
+                .build()).getId();
+    }
+
+    private long countStatements(Runnable query) {
+        Statistics statistics = entityManager.getEntityManager()
+                .getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+        query.run();
+        entityManager.clear();
+        return statistics.getPrepareStatementCount();
+    }
+}
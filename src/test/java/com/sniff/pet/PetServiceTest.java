@@ -4,10 +4,15 @@ import com.sniff.auth.service.AuthVerifyService;
 import com.sniff.location.model.entity.City;
 import com.sniff.location.model.entity.Region;
 import com.sniff.mapper.Mappers;
+import com.sniff.pagination.PageCursor;
+import com.sniff.pagination.PageWithMetadata;
+import com.sniff.pagination.exception.InvalidCursorException;
 import com.sniff.pet.exceptions.PetNotBelongingToUserException;
 import com.sniff.pet.exceptions.PetNotFoundException;
+import com.sniff.pet.geo.PetGeoIndex;
 import com.sniff.pet.model.entity.Pet;
 import com.sniff.pet.model.request.PetProfileModify;
+import com.sniff.pet.model.response.PetCard;
 import com.sniff.pet.model.response.PetProfile;
 import com.sniff.pet.repository.PetRepository;
 import com.sniff.pet.service.PetService;
@@ -20,10 +25,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static com.sniff.pet.enums.Gender.MALE;
@@ -32,7 +40,10 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -47,6 +58,8 @@ public class PetServiceTest {
     private AuthVerifyService authVerifyService;
     @Mock
     private PasswordEncoder passwordEncoder;
+    @Mock
+    private PetGeoIndex petGeoIndex;
 
     @InjectMocks
     private PetService petService;
@@ -66,14 +79,14 @@ public class PetServiceTest {
                 .password(passwordEncoder.encode("qwerty123456789"))
                 .pets(new ArrayList<>())
                 .region(new Region(1L, "Region", null))
-                .city(new City(1L, "City", null))
+                .city(new City(1L, "City", null, null))
                 .build();
         pet = Pet.builder()
                 .id(1L)
                 .status(LOST)
                 .name("Pet")
-                .latitude("latitude")
-                .longitude("longitude")
+                .latitude(50.45)
+                .longitude(30.52)
                 .gender(MALE)
                 .foundOrLostDate(LocalDate.now())
                 .description("Description")
@@ -129,12 +142,35 @@ public class PetServiceTest {
                 () -> petService.updatePetProfile(pet.getId(), generateModifyRequest()));
     }
 
+    @Test
+    @DisplayName("[Sprint-4] Get pet gallery by cursor without counting pages")
+    public void getPetsGalleryByCursor() {
+        given(petRepository.findPetsByStatusRegionAndCityAfter(any(), any(), any(), eq(10L), any()))
+                .willReturn(new SliceImpl<>(List.of(new PetCard(pet.getId(), null, pet.getName())),
+                        PageRequest.of(0, 1), true));
+
+        PageWithMetadata<PetCard> gallery = petService.getPetsGalleryAfter(
+                PageCursor.encode(10L), 1, LOST, null, null);
+
+        assertThat(gallery.getContent()).hasSize(1);
+        assertThat(gallery.getTotalPages()).isNull();
+        assertThat(PageCursor.decode(gallery.getNextCursor())).isEqualTo(pet.getId());
+        verify(petRepository, never()).findPetsByStatusRegionAndCity(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Try to get pet gallery with malformed cursor")
+    public void tryGetPetsGalleryWithMalformedCursor() {
+        assertThrows(InvalidCursorException.class,
+                () -> petService.getPetsGalleryAfter("not a cursor", 12, null, null, null));
+    }
+
     private PetProfileModify generateModifyRequest() {
         return PetProfileModify.builder()
                 .status(String.valueOf(LOST))
                 .name("Pet")
-                .latitude("latitude")
-                .longitude("longitude")
+                .latitude(50.45)
+                .longitude(30.52)
                 .gender(String.valueOf(MALE))
                 .foundOrLostDate(LocalDate.now())
                 .description("Description")
@@ -2,9 +2,14 @@ package com.sniff.user;
 
 import com.sniff.auth.exception.DeniedAccessException;
 import com.sniff.auth.service.AuthVerifyService;
+import com.sniff.auth.service.RefreshTokenService;
+import com.sniff.filestore.service.FileStoreService;
 import com.sniff.location.repository.CityRepository;
 import com.sniff.location.repository.RegionRepository;
 import com.sniff.mapper.Mappers;
+import com.sniff.location.model.entity.Region;
+import com.sniff.pet.geo.PetGeoIndex;
+import com.sniff.pet.repository.PetRepository;
 import com.sniff.user.exception.UserNotFoundException;
 import com.sniff.user.model.entity.User;
 import com.sniff.user.model.request.PasswordUpdate;
@@ -23,6 +28,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.ArrayList;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -47,6 +53,14 @@ public class UserServiceTest {
     private PasswordEncoder passwordEncoder;
     @Mock
     private AuthVerifyService authVerifyService;
+    @Mock
+    private PetGeoIndex petGeoIndex;
+    @Mock
+    private PetRepository petRepository;
+    @Mock
+    private FileStoreService fileStoreService;
+    @Mock
+    private RefreshTokenService refreshTokenService;
 
     @InjectMocks
     private UserService userService;
@@ -112,6 +126,22 @@ public class UserServiceTest {
         UserProfile userProfile = userService.updateUserProfile(user.getId(), userUpdate);
 
         assertThat(userProfile).isNotNull();
+        verify(petRepository, never()).updateLocationByAuthorId(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("[Sprint-4] Changed location is copied to user pets")
+    public void editLocationUpdatesUserPets() {
+        Region region = new Region(1L, "Region", new ArrayList<>());
+        given(userRepository.findById(anyLong())).willReturn(Optional.of(user));
+        given(regionRepository.findById(region.getId())).willReturn(Optional.of(region));
+
+        UserUpdate userUpdate = generateUpdateRequest();
+        userUpdate.setRegionId(region.getId());
+
+        userService.updateUserProfile(user.getId(), userUpdate);
+
+        verify(petRepository).updateLocationByAuthorId(user.getId(), region, null);
     }
 
     @Test
@@ -145,6 +175,7 @@ public class UserServiceTest {
         userService.changePassword(user.getId(), passwordUpdate);
 
         assertThat(user.getPassword()).isEqualTo(passwordEncoder.encode("newPassword"));
+        verify(refreshTokenService).revokeAll(user.getId());
     }
 
     @Test
@@ -197,6 +228,19 @@ public class UserServiceTest {
                 () -> userService.changePassword(user.getId(), generatePasswordUpdateRequest()));
     }
 
+    @Test
+    @DisplayName("[Sprint-4] Deleted user's images are removed from storage")
+    public void deleteUserRemovesImages() {
+        user.setPets(new ArrayList<>());
+        given(userRepository.findById(user.getId())).willReturn(Optional.of(user));
+
+        userService.deleteUser(user.getId());
+
+        verify(fileStoreService).deleteAllUserImages(user);
+        verify(refreshTokenService).revokeAll(user.getId());
+        verify(userRepository).deleteById(user.getId());
+    }
+
     private UserUpdate generateUpdateRequest(){
         return UserUpdate.builder()
                 .firstname("John")